@@ -0,0 +1,299 @@
+package utopia.genesis.event;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+import utopia.genesis.util.SortKey;
+
+/**
+ * A draw list holds the drawables of a drawable handler in the order they are drawn 
+ * during a single frame. The list also knows which of the drawables are hidden behind 
+ * opaque drawables closer to the viewer. When the list is collected for drawing, it also 
+ * holds the state each drawable picked for the frame, so that multiple lists of the same 
+ * drawables may be drawn at the same time. Lists are reused between frames, so a list 
+ * should be released once the frame has been drawn.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see DrawableHandler#collectDrawList(Rectangle2D)
+ */
+public class DrawList
+{
+	// ATTRIBUTES	------------------------------
+	
+	private static final int MAX_OCCLUDERS = 8;
+	
+	private final Queue<DrawList> pool;
+	private final List<Drawable> drawables = new ArrayList<>();
+	private long[] keys = new long[64];
+	private long[] sortBuffer = new long[64];
+	private boolean[] hidden = new boolean[64];
+	private DrawList[] children = new DrawList[64];
+	private Object[] frameStates = new Object[64];
+	private boolean prepared = false;
+	private final Rectangle2D[] occluders = new Rectangle2D[MAX_OCCLUDERS];
+	private int size = 0;
+	private boolean areaCovered = false;
+	
+	
+	// CONSTRUCTOR	------------------------------
+	
+	DrawList(Queue<DrawList> pool)
+	{
+		this.pool = pool;
+	}
+	
+	
+	// ACCESSORS	------------------------------
+	
+	/**
+	 * @return How many drawables there are in the list
+	 */
+	public int size()
+	{
+		return this.size;
+	}
+	
+	/**
+	 * @param index The drawing order index of a drawable [0, size[
+	 * @return The drawable drawn at that point. The first drawable is drawn first.
+	 */
+	public Drawable get(int index)
+	{
+		return this.drawables.get(SortKey.indexOf(this.keys[index]));
+	}
+	
+	/**
+	 * @param index The drawing order index of a drawable [0, size[
+	 * @return The draw list collected for the drawable if it is a drawable handler itself. 
+	 * Null otherwise.
+	 */
+	public DrawList getChild(int index)
+	{
+		return this.children[SortKey.indexOf(this.keys[index])];
+	}
+	
+	/**
+	 * @param index The drawing order index of a drawable [0, size[
+	 * @return The state the drawable picked for this frame. Null if the drawable didn't 
+	 * pick a state or if the list wasn't collected for drawing.
+	 * @see Drawable#prepareFrame()
+	 */
+	public Object getFrameState(int index)
+	{
+		return this.frameStates[SortKey.indexOf(this.keys[index])];
+	}
+	
+	/**
+	 * @param index The drawing order index of a drawable [0, size[
+	 * @return The area the drawable draws to during this frame. Null if unknown.
+	 */
+	public Rectangle2D getDrawBounds(int index)
+	{
+		Drawable d = get(index);
+		return this.prepared ? d.getFrameBounds(getFrameState(index)) : d.getDrawBounds();
+	}
+	
+	/**
+	 * @param index The drawing order index of a drawable [0, size[
+	 * @return Is the drawable completely hidden behind opaque drawables
+	 */
+	public boolean isHidden(int index)
+	{
+		return this.hidden[index];
+	}
+	
+	/**
+	 * @return Do the opaque drawables in this list completely cover the area the list was 
+	 * collected for. If so, the area doesn't need to be cleared before drawing.
+	 */
+	public boolean coversArea()
+	{
+		return this.areaCovered;
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Counts the drawables in this list the same way drawing the list would. This can be 
+	 * used when the list is drawn in parts, in which case the parts shouldn't collect 
+	 * statistics themselves.
+	 * @param statistics The statistics the visited and drawn drawables are counted to
+	 * @param area The drawn area. Drawables outside this area are only counted as visited.
+	 */
+	public void recordStatistics(DrawStatistics statistics, Rectangle2D area)
+	{
+		for (int i = 0; i < this.size; i++)
+		{
+			DrawList child = getChild(i);
+			if (child != null && !this.hidden[i])
+			{
+				child.recordStatistics(statistics, area);
+				continue;
+			}
+			
+			statistics.drawableVisited();
+			if (this.hidden[i])
+				continue;
+			
+			Rectangle2D bounds = getDrawBounds(i);
+			if (bounds == null || area == null || bounds.intersects(area))
+				statistics.drawableDrawn();
+		}
+	}
+	
+	/**
+	 * Releases the list so that it can be reused. The states picked for the frame are 
+	 * released as well. The list must not be used afterwards.
+	 */
+	public void release()
+	{
+		// The collected drawables are released even if the list was never ordered
+		int collected = Math.min(this.drawables.size(), this.children.length);
+		for (int i = 0; i < collected; i++)
+		{
+			if (this.children[i] != null)
+			{
+				this.children[i].release();
+				this.children[i] = null;
+			}
+			else if (this.prepared)
+			{
+				this.drawables.get(i).releaseFrame(this.frameStates[i]);
+				this.frameStates[i] = null;
+			}
+		}
+		
+		this.drawables.clear();
+		this.size = 0;
+		this.areaCovered = false;
+		this.prepared = false;
+		this.pool.offer(this);
+	}
+	
+	List<Drawable> getCollected()
+	{
+		return this.drawables;
+	}
+	
+	/**
+	 * Collects the lists of the nested drawable handlers and, if the list is drawn, picks 
+	 * the state of each drawable for the frame. Everything is resolved on the calling 
+	 * thread.
+	 * @param area The drawn area. Null if unknown.
+	 * @param prepareFrames Will the list be drawn. If false, the drawables aren't prepared 
+	 * for a frame and only their current bounds are used.
+	 */
+	void prepare(Rectangle2D area, boolean prepareFrames)
+	{
+		int size = Math.min(this.drawables.size(), SortKey.MAX_INDEX + 1);
+		if (this.children.length < size)
+		{
+			this.children = new DrawList[size * 2];
+			this.frameStates = new Object[size * 2];
+		}
+		
+		for (int i = 0; i < size; i++)
+		{
+			Drawable d = this.drawables.get(i);
+			if (d instanceof DrawableHandler)
+				this.children[i] = ((DrawableHandler) d).collectDrawList(area, prepareFrames);
+			else if (prepareFrames)
+				this.frameStates[i] = d.prepareFrame();
+		}
+		this.prepared = prepareFrames;
+	}
+	
+	/**
+	 * Determines the drawing order of the collected drawables
+	 * @param useSortKeys Should the drawables be ordered by their sort keys. Otherwise 
+	 * the collection order is kept.
+	 */
+	void order(boolean useSortKeys)
+	{
+		int size = Math.min(this.drawables.size(), SortKey.MAX_INDEX + 1);
+		if (this.keys.length < size)
+		{
+			this.keys = new long[size * 2];
+			this.sortBuffer = new long[size * 2];
+			this.hidden = new boolean[size * 2];
+		}
+		
+		// Ties in depth and material keep the collection order
+		for (int i = 0; i < size; i++)
+		{
+			if (useSortKeys)
+			{
+				Drawable d = this.drawables.get(i);
+				this.keys[i] = SortKey.pack(d.getDepth(), d.getMaterialId(), i);
+			}
+			else
+				this.keys[i] = SortKey.pack(0, 0, i);
+		}
+		
+		if (useSortKeys)
+			SortKey.sort(this.keys, this.sortBuffer, size);
+		this.size = size;
+	}
+	
+	/**
+	 * Finds the drawables that are covered by the opaque drawables in front of them
+	 * @param area The drawn area. Null if unknown.
+	 */
+	void findHidden(Rectangle2D area)
+	{
+		int occluderAmount = 0;
+		boolean areaCovered = false;
+		
+		// Goes through the drawables starting from the closest one
+		for (int i = this.size - 1; i >= 0; i--)
+		{
+			this.hidden[i] = areaCovered;
+			if (areaCovered)
+				continue;
+			
+			// Drawable handlers only cover the area if their own drawables do
+			DrawList child = getChild(i);
+			if (child != null)
+			{
+				areaCovered = child.coversArea();
+				continue;
+			}
+			
+			Drawable d = get(i);
+			if (occluderAmount > 0)
+			{
+				Rectangle2D bounds = getDrawBounds(i);
+				if (bounds != null)
+				{
+					for (int o = 0; o < occluderAmount; o++)
+					{
+						if (this.occluders[o].contains(bounds))
+						{
+							this.hidden[i] = true;
+							break;
+						}
+					}
+					if (this.hidden[i])
+						continue;
+				}
+			}
+			
+			// Once the whole drawn area is covered, nothing behind needs to be drawn
+			Rectangle2D opaqueBounds = d.getOpaqueBounds();
+			if (opaqueBounds != null)
+			{
+				if (area != null && opaqueBounds.contains(area))
+					areaCovered = true;
+				else if (occluderAmount < MAX_OCCLUDERS)
+					this.occluders[occluderAmount++] = opaqueBounds;
+			}
+		}
+		
+		Arrays.fill(this.occluders, null);
+		this.areaCovered = areaCovered;
+	}
+}
@@ -0,0 +1,56 @@
+package utopia.genesis.event;
+
+/**
+ * Draw statistics are collected while a DrawableHandler draws its content. They tell how 
+ * many drawables were visited and how many of them were actually drawn.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see DrawableHandler#drawSelf(java.awt.Graphics2D, DrawStatistics)
+ */
+public class DrawStatistics
+{
+	// ATTRIBUTES	------------------------------
+	
+	private int visited = 0, drawn = 0;
+	
+	
+	// ACCESSORS	------------------------------
+	
+	/**
+	 * @return How many drawables were visited since the last reset
+	 */
+	public int getVisitedAmount()
+	{
+		return this.visited;
+	}
+	
+	/**
+	 * @return How many drawables were actually drawn since the last reset
+	 */
+	public int getDrawnAmount()
+	{
+		return this.drawn;
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Resets the statistics
+	 */
+	public void reset()
+	{
+		this.visited = 0;
+		this.drawn = 0;
+	}
+	
+	void drawableVisited()
+	{
+		this.visited ++;
+	}
+	
+	void drawableDrawn()
+	{
+		this.drawn ++;
+	}
+}
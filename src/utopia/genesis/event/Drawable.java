@@ -1,8 +1,9 @@
 package utopia.genesis.event;
 
-import java.awt.AlphaComposite;
 import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
 
+import utopia.genesis.util.StateCachingGraphics;
 import utopia.inception.handling.Handled;
 
 /**
@@ -29,6 +30,100 @@ public interface Drawable extends Handled
 	 */
 	public int getDepth();
 	
+	/**
+	 * Prepares the object for drawing a new frame. This is called once for each collected 
+	 * frame on the thread that collects the drawn objects, before the object's bounds are 
+	 * checked or it is drawn. Objects that publish their state through snapshots should 
+	 * pick the state drawn during this frame here. The picked state is kept by the 
+	 * collector, since multiple frames (for example of different panels) may be collected 
+	 * and drawn at the same time. When a frame is rendered in tiles, 
+	 * {@link #drawFrame(Graphics2D, Object)} may be called from multiple threads at once.
+	 * @return The state drawn during the frame. Null if the object doesn't pick a state.
+	 * @see utopia.genesis.video.TiledRenderer
+	 * @see #releaseFrame(Object)
+	 */
+	public default Object prepareFrame()
+	{
+		// No preparation is necessary by default
+		return null;
+	}
+	
+	/**
+	 * Draws the object using the state picked for a frame. By default the object is simply 
+	 * drawn.
+	 * @param g2d The graphics object that will draw the object
+	 * @param frameState The state returned by {@link #prepareFrame()} for this frame
+	 */
+	public default void drawFrame(Graphics2D g2d, Object frameState)
+	{
+		drawSelf(g2d);
+	}
+	
+	/**
+	 * @param frameState The state returned by {@link #prepareFrame()} for a frame
+	 * @return The area the object draws to during that frame
+	 * @see #getDrawBounds()
+	 */
+	public default Rectangle2D getFrameBounds(Object frameState)
+	{
+		return getDrawBounds();
+	}
+	
+	/**
+	 * Informs the object that a frame has been drawn and the state picked for it is no 
+	 * longer used
+	 * @param frameState The state returned by {@link #prepareFrame()} for the frame
+	 */
+	public default void releaseFrame(Object frameState)
+	{
+		// Nothing needs to be released by default
+	}
+	
+	/**
+	 * Changes the object that is informed when the object's appearance changes by itself 
+	 * (not only through its snapshot or state that changes on every step). Drawable 
+	 * handlers install a listener when the object is added to them, so that panels that 
+	 * only render on demand are repainted. Objects that don't change by themselves may 
+	 * ignore the listener.
+	 * @param listener The listener that should be informed when the object needs to be 
+	 * redrawn. Null if no listener is used.
+	 * @see DrawableHandler#markDirty()
+	 */
+	public default void setRedrawListener(Runnable listener)
+	{
+		// Objects don't need to inform anyone by default
+	}
+	
+	/**
+	 * @return The area the object draws to, in the same coordinate system the object is 
+	 * drawn in. Objects outside the drawn area may be skipped. Null if the area is unknown, 
+	 * in which case the object is always drawn.
+	 */
+	public default Rectangle2D getDrawBounds()
+	{
+		return null;
+	}
+	
+	/**
+	 * @return The area the object covers completely with opaque pixels, in the same 
+	 * coordinate system the object is drawn in. Objects behind this area may be skipped. 
+	 * Null if the object doesn't cover any area completely.
+	 */
+	public default Rectangle2D getOpaqueBounds()
+	{
+		return null;
+	}
+	
+	/**
+	 * @return An identifier of the resources (image, composite, etc.) used when drawing this 
+	 * object. Objects on the same depth are drawn in material order so that objects using 
+	 * the same resources are drawn one after another. Only the lowest 20 bits are used.
+	 */
+	public default int getMaterialId()
+	{
+		return 0;
+	}
+	
 	/**
 	 * Changes the drawing alpha value of a graphics object
 	 * @param g2d A graphics object
@@ -36,6 +131,6 @@ public interface Drawable extends Handled
 	 */
 	public static void setDrawAlpha(Graphics2D g2d, float alpha)
 	{
-		g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+		g2d.setComposite(StateCachingGraphics.getAlphaComposite(alpha));
 	}
 }
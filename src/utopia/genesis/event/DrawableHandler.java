@@ -1,11 +1,18 @@
 package utopia.genesis.event;
 
+import utopia.genesis.image.SpriteBatch;
 import utopia.genesis.util.DepthConstants;
+import utopia.genesis.util.StateCachingGraphics;
 import utopia.inception.handling.Handler;
 import utopia.inception.handling.HandlerType;
 
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
 import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * The object from this class will draw multiple drawables, calling their 
@@ -17,11 +24,15 @@ public class DrawableHandler extends Handler<Drawable> implements Drawable
 {
 	// ATTRIBUTES	------------------------------------------------------
 	
-	private int depth, lastDrawableDepth;
+	private int depth;
 	private boolean usesDepth;
-	private Graphics2D lastg2d;
-	private boolean needsSorting, usesSubDrawers;
+	private volatile boolean needsSorting;
+	private boolean usesSubDrawers;
+	private volatile boolean usesSortKeys;
 	private SubDrawer[] subDrawers;
+	private volatile Runnable redrawListener = null;
+	private final Queue<SpriteBatch> spriteBatches = new ConcurrentLinkedQueue<>();
+	private final Queue<DrawList> drawLists = new ConcurrentLinkedQueue<>();
 	
 	
 	// CONSTRUCTOR	------------------------------------------------------
@@ -64,11 +75,7 @@ public class DrawableHandler extends Handler<Drawable> implements Drawable
 	@Override
 	public void drawSelf(Graphics2D g2d)
 	{
-		// Handleobjects draws the handleds at default
-		this.lastg2d = g2d;
-		this.lastDrawableDepth = DepthConstants.BOTTOM + 1000;
-		
-		handleObjects(true);
+		drawSelf(g2d, null);
 	}
 	
 	@Override
@@ -80,14 +87,7 @@ public class DrawableHandler extends Handler<Drawable> implements Drawable
 	@Override
 	protected boolean handleObject(Drawable d)
 	{
-		// Draws the visible object
-		d.drawSelf(this.lastg2d);
-		
-		// Also checks if the depths are still ok
-		if (d.getDepth() > this.lastDrawableDepth)
-			this.needsSorting = true;
-		this.lastDrawableDepth = d.getDepth();
-		
+		// Drawables are handled through operators since drawing requires a graphics object
 		return true;
 	}
 	
@@ -97,7 +97,8 @@ public class DrawableHandler extends Handler<Drawable> implements Drawable
 		// In addition to normal update, sorts the handling list if needed
 		super.updateStatus();
 		
-		if (this.needsSorting)
+		// When sort keys are used, the drawables are ordered during drawing instead
+		if (this.needsSorting && !this.usesSortKeys)
 		{
 			sortHandleds(new DepthSorter());
 			this.needsSorting = false;
@@ -107,6 +108,11 @@ public class DrawableHandler extends Handler<Drawable> implements Drawable
 	@Override
 	public void add(Drawable d)
 	{
+		// The new drawable needs to be drawn. It also informs this handler whenever it 
+		// changes later.
+		d.setRedrawListener(this::markDirty);
+		markDirty();
+		
 		// Checks if depth causes additional issues
 		if (this.usesDepth && !(d instanceof SubDrawer))
 		{
@@ -153,14 +159,186 @@ public class DrawableHandler extends Handler<Drawable> implements Drawable
 	
 	// OTHER METHODS	---------------------------------------------------
 	
+	/**
+	 * Draws the drawables in this handler and collects statistics about the drawing
+	 * @param g2d The graphics object that does the drawing
+	 * @param statistics The statistics the visited and drawn drawables are counted to. 
+	 * Null if no statistics should be collected.
+	 */
+	public void drawSelf(Graphics2D g2d, DrawStatistics statistics)
+	{
+		DrawList drawList = collectDrawList(g2d.getClipBounds());
+		try
+		{
+			drawSelf(g2d, drawList, statistics);
+		}
+		finally
+		{
+			drawList.release();
+		}
+	}
+	
+	/**
+	 * Draws the drawables in a draw list collected from this handler. The same list may 
+	 * be drawn from multiple threads at once, each drawing a different area.
+	 * @param g2d The graphics object that does the drawing
+	 * @param drawList The drawables to draw, in drawing order
+	 * @param statistics The statistics the visited and drawn drawables are counted to. 
+	 * Null if no statistics should be collected.
+	 * @see #collectDrawList(Rectangle2D)
+	 */
+	public void drawSelf(Graphics2D g2d, DrawList drawList, DrawStatistics statistics)
+	{
+		// The draw operator holds the state of this drawing so that the handler may be 
+		// drawn from multiple threads at once. Redundant state changes made by the 
+		// drawables are filtered out.
+		DrawOperator operator = new DrawOperator(StateCachingGraphics.wrap(g2d), statistics);
+		for (int i = 0; i < drawList.size(); i++)
+		{
+			// Drawables hidden behind opaque drawables are skipped
+			if (drawList.isHidden(i))
+				operator.skip();
+			else
+				operator.draw(drawList, i);
+		}
+		
+		// The sprites collected at the end of the pass are drawn last
+		operator.flushSprites();
+	}
+	
+	/**
+	 * Collects the drawables in this handler in the order they are drawn during this frame. 
+	 * The internal depth sorting layers are flattened. The same order is used whether the 
+	 * handler is drawn directly or the collected list is drawn in parts. Each collected 
+	 * drawable is prepared for the frame on the calling thread and the picked states are 
+	 * kept in the list until it is released.
+	 * @param area The drawn area, in the same coordinate system the drawables are drawn 
+	 * in. The drawables that are hidden behind opaque drawables in this area are marked. 
+	 * Null if the area is unknown.
+	 * @return The drawables in drawing order. The list should be released once the frame 
+	 * has been drawn.
+	 */
+	public DrawList collectDrawList(Rectangle2D area)
+	{
+		return collectDrawList(area, true);
+	}
+	
+	/**
+	 * Collects the drawables in this handler in drawing order
+	 * @param area The drawn area. Null if unknown.
+	 * @param prepareFrames Will the list be drawn. Lists that are only inspected don't 
+	 * prepare the drawables for a frame.
+	 * @return The drawables in drawing order. The list should be released afterwards.
+	 */
+	DrawList collectDrawList(Rectangle2D area, boolean prepareFrames)
+	{
+		DrawList drawList = this.drawLists.poll();
+		if (drawList == null)
+			drawList = new DrawList(this.drawLists);
+		
+		handleObjects(new CollectOperator(drawList.getCollected()), true);
+		drawList.prepare(area, prepareFrames);
+		drawList.order(this.usesSortKeys);
+		drawList.findHidden(area);
+		
+		return drawList;
+	}
+	
+	/**
+	 * Changes how the drawing order is determined in a handler that uses depth. When sort 
+	 * keys are used, the drawables are ordered during each draw by their depth, material 
+	 * and insertion order, using a radix sort. Otherwise the handler's internal order is 
+	 * sorted by depth using a comparator when necessary. Sort keys are used by default.
+	 * @see Drawable#getOpaqueBounds()
+	 * @param useSortKeys Should the drawing order be determined with sort keys
+	 * @see Drawable#getMaterialId()
+	 */
+	public void setSortKeyOrdering(boolean useSortKeys)
+	{
+		if (!this.usesDepth)
+			return;
+		
+		this.usesSortKeys = useSortKeys;
+		if (!useSortKeys)
+			this.needsSorting = true;
+		
+		if (this.subDrawers != null)
+		{
+			for (SubDrawer subDrawer : this.subDrawers)
+			{
+				subDrawer.setSortKeyOrdering(useSortKeys);
+			}
+		}
+	}
+	
+	/**
+	 * Collects the drawables in this handler in the order they would be drawn. The internal 
+	 * depth sorting layers are flattened, so that the collected drawables can be drawn 
+	 * independently, possibly from multiple threads. Drawables hidden behind opaque 
+	 * drawables are left out.
+	 * @param drawables The list the drawables are added to
+	 * @see #collectDrawList(Rectangle2D)
+	 */
+	public void collectDrawables(List<? super Drawable> drawables)
+	{
+		DrawList drawList = collectDrawList(null, false);
+		for (int i = 0; i < drawList.size(); i++)
+		{
+			if (!drawList.isHidden(i))
+				drawables.add(drawList.get(i));
+		}
+		drawList.release();
+	}
+	
+	/**
+	 * Checks whether an area is completely covered by an opaque drawable in this handler. 
+	 * If so, the area doesn't need to be cleared before drawing. When the handler is drawn 
+	 * anyway, {@link DrawList#coversArea()} of the drawn list should be used instead, since 
+	 * this method collects the drawables again.
+	 * @param area The checked area, in the same coordinate system the drawables are drawn in
+	 * @return Is the area completely covered by an opaque drawable
+	 * @see Drawable#getOpaqueBounds()
+	 */
+	public boolean coversArea(Rectangle2D area)
+	{
+		DrawList drawList = collectDrawList(area, false);
+		boolean covered = drawList.coversArea();
+		drawList.release();
+		return covered;
+	}
+	
+	/**
+	 * Informs the handler that the drawn content has changed and should be redrawn. This is 
+	 * called automatically when drawables are added and when the added drawables inform 
+	 * the handler of their changes through their redraw listener.
+	 * @see Drawable#setRedrawListener(Runnable)
+	 * @see utopia.genesis.video.GamePanel#setRenderOnDemand(boolean, long)
+	 */
+	public void markDirty()
+	{
+		Runnable listener = this.redrawListener;
+		if (listener != null)
+			listener.run();
+	}
+	
+	/**
+	 * Changes the object that is informed whenever the handler is marked dirty
+	 * @param listener The listener that is informed when the content should be redrawn. 
+	 * Null if no listener is used.
+	 */
+	@Override
+	public void setRedrawListener(Runnable listener)
+	{
+		this.redrawListener = listener;
+	}
+	
 	private void initialize(boolean usesDepth, int depth, int depthSortLayers)
 	{
 		// Initializes attributes
 		this.depth = depth;
 		this.usesDepth = usesDepth;
-		this.lastg2d = null;
+		this.usesSortKeys = usesDepth;
 		this.needsSorting = false;
-		this.lastDrawableDepth = DepthConstants.BOTTOM;
 		
 		// Initializes the subdrawers (if needed)
 		if (usesDepth && depthSortLayers > 1)
@@ -187,8 +365,147 @@ public class DrawableHandler extends Handler<Drawable> implements Drawable
 	}
 	
 	
+	/**
+	 * This method is called for each drawable before it is drawn or collected
+	 * @param d The drawable that is about to be drawn
+	 */
+	protected void prepareDrawable(Drawable d)
+	{
+		// No preparation is necessary by default
+	}
+	
+	
 	// SUBCLASSES	------------------------------------------------------
 	
+	// Draws the drawables of a single draw list
+	private class DrawOperator
+	{
+		// ATTRIBUTES	------------------------------------------------
+		
+		private Graphics2D g2d;
+		private Rectangle clip;
+		private SpriteBatch spriteBatch = null;
+		private int spriteBatchDepth;
+		private DrawStatistics statistics;
+		
+		
+		// CONSTRUCTOR	------------------------------------------------
+		
+		public DrawOperator(Graphics2D g2d, DrawStatistics statistics)
+		{
+			this.g2d = g2d;
+			this.clip = g2d.getClipBounds();
+			this.statistics = statistics;
+		}
+		
+		
+		// OTHER METHODS	--------------------------------------------
+		
+		public void draw(DrawList drawList, int index)
+		{
+			// Sub handlers draw and count their own drawables
+			Drawable d = drawList.get(index);
+			DrawList childList = drawList.getChild(index);
+			if (childList != null)
+			{
+				flushSprites();
+				((DrawableHandler) d).drawSelf(this.g2d, childList, this.statistics);
+				return;
+			}
+			
+			if (this.statistics != null)
+				this.statistics.drawableVisited();
+			
+			// Drawables outside the drawn area are skipped
+			Rectangle2D bounds = drawList.getDrawBounds(index);
+			if (bounds != null && this.clip != null && !bounds.intersects(this.clip))
+				return;
+			
+			if (this.statistics != null)
+				this.statistics.drawableDrawn();
+			
+			// Sprites on the same depth are collected to a single batch, which is drawn 
+			// once the depth changes or something else needs to be drawn
+			if (d instanceof SpriteDrawable)
+			{
+				int depth = d.getDepth();
+				if (this.spriteBatch == null)
+				{
+					this.spriteBatch = DrawableHandler.this.spriteBatches.poll();
+					if (this.spriteBatch == null)
+						this.spriteBatch = new SpriteBatch();
+				}
+				else if (depth != this.spriteBatchDepth)
+					this.spriteBatch.flush(this.g2d);
+				
+				this.spriteBatchDepth = depth;
+				((SpriteDrawable) d).drawSprites(this.spriteBatch);
+			}
+			else
+			{
+				if (this.spriteBatch != null)
+					this.spriteBatch.flush(this.g2d);
+				d.drawFrame(this.g2d, drawList.getFrameState(index));
+			}
+		}
+		
+		public void skip()
+		{
+			if (this.statistics != null)
+				this.statistics.drawableVisited();
+		}
+		
+		public void flushSprites()
+		{
+			// Draws the remaining sprites and returns the batch for reuse
+			if (this.spriteBatch != null)
+			{
+				this.spriteBatch.flush(this.g2d);
+				DrawableHandler.this.spriteBatches.offer(this.spriteBatch);
+				this.spriteBatch = null;
+			}
+		}
+	}
+	
+	// Collects the drawables in the handler's internal order
+	private class CollectOperator extends HandlingOperator
+	{
+		// ATTRIBUTES	------------------------------------------------
+		
+		private List<? super Drawable> drawables;
+		private int lastDrawableDepth = DepthConstants.BOTTOM + 1000;
+		
+		
+		// CONSTRUCTOR	------------------------------------------------
+		
+		public CollectOperator(List<? super Drawable> drawables)
+		{
+			this.drawables = drawables;
+		}
+		
+		
+		// IMPLEMENTED METHODS	----------------------------------------
+		
+		@Override
+		protected boolean handleObject(Drawable d)
+		{
+			prepareDrawable(d);
+			
+			if (d instanceof SubDrawer)
+				((SubDrawer) d).collectInternalOrder(this.drawables);
+			else
+				this.drawables.add(d);
+			
+			// Also checks if the depths are still ok
+			int drawableDepth = d.getDepth();
+			if (drawableDepth > this.lastDrawableDepth)
+				DrawableHandler.this.needsSorting = true;
+			this.lastDrawableDepth = drawableDepth;
+			
+			return true;
+		}
+	}
+	
 	private class DepthSorter implements Comparator<Drawable>
 	{
 		@Override
@@ -219,6 +536,7 @@ public class DrawableHandler extends Handler<Drawable> implements Drawable
 			this.minDepth = minDepth;
 			this.maxDepth = maxDepth;
 			this.superHandler = superhandler;
+			setRedrawListener(superhandler::markDirty);
 			
 			// This is an exception to the "no adding yourself to a handler" rule since 
 			// the reference is saved anyway
@@ -229,18 +547,16 @@ public class DrawableHandler extends Handler<Drawable> implements Drawable
 		// IMPLEMENTED METHODS	----------------------------------------
 		
 		@Override
-		protected boolean handleObject(Drawable d)
+		protected void prepareDrawable(Drawable d)
 		{
-			// Also checks if the object is out of the depth range
+			// Checks if the object is out of the depth range
 			if (!depthIsWithinRange(d.getDepth()))
 			{
 				// Removes the drawable from this depth range and requests a 
 				// repositioning
 				removeHandled(d);
 				this.superHandler.add(d);
-			}	
-			
-			return super.handleObject(d);
+			}
 		}
 		
 		// OTHER METHODS	------------------------------------------------
@@ -249,5 +565,11 @@ public class DrawableHandler extends Handler<Drawable> implements Drawable
 		{
 			return (depth >= this.minDepth && depth <= this.maxDepth);
 		}
+		
+		public void collectInternalOrder(List<? super Drawable> drawables)
+		{
+			// The super handler orders the drawables of all its layers at once
+			handleObjects(new CollectOperator(drawables), true);
+		}
 	}
 }
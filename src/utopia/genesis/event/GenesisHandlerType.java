@@ -29,7 +29,13 @@ public enum GenesisHandlerType implements HandlerType
 	 * ActorHandler handles Actors and informs them about step events
 	 * @see ActorHandler
 	 */
-	ACTORHANDLER;
+	ACTORHANDLER,
+	/**
+	 * SnapshotHandler handles Snapshottables and informs them when they should publish their 
+	 * render state
+	 * @see SnapshotHandler
+	 */
+	SNAPSHOTHANDLER;
 
 	
 	// IMPLEMENTED METHODS	---------------------------------------
@@ -43,6 +49,7 @@ public enum GenesisHandlerType implements HandlerType
 			case KEYHANDLER: return KeyListener.class;
 			case DRAWABLEHANDLER: return Drawable.class;
 			case ACTORHANDLER: return Actor.class;
+			case SNAPSHOTHANDLER: return Snapshottable.class;
 			
 			default: return null;
 		}
@@ -0,0 +1,47 @@
+package utopia.genesis.event;
+
+import utopia.inception.handling.Handler;
+import utopia.inception.handling.HandlerType;
+
+/**
+ * SnapshotHandler informs multiple snapshottable objects when they should publish their state. 
+ * Usually each stepHandler has its own snapshot handler that is informed after each step.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see StepHandler#getSnapshotHandler()
+ */
+public class SnapshotHandler extends Handler<Snapshottable> implements Snapshottable
+{
+	// CONSTRUCTOR	------------------------------
+	
+	/**
+	 * Creates a new snapshot handler. Snapshottables must be added later manually.
+	 */
+	public SnapshotHandler()
+	{
+		// No initialization required
+	}
+	
+	
+	// IMPLEMENTED METHODS	----------------------
+	
+	@Override
+	public void publishSnapshot()
+	{
+		// Informs all the active objects
+		handleObjects(true);
+	}
+
+	@Override
+	public HandlerType getHandlerType()
+	{
+		return GenesisHandlerType.SNAPSHOTHANDLER;
+	}
+
+	@Override
+	protected boolean handleObject(Snapshottable s)
+	{
+		s.publishSnapshot();
+		return true;
+	}
+}
@@ -0,0 +1,20 @@
+package utopia.genesis.event;
+
+import utopia.inception.handling.Handled;
+
+/**
+ * Snapshottable objects publish their render-relevant state after each step so that the 
+ * drawing thread can read a complete state without being affected by the ongoing 
+ * simulation.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see SnapshotHandler
+ */
+public interface Snapshottable extends Handled
+{
+	/**
+	 * Publishes the object's current state to be used in drawing. This method is called 
+	 * from the step thread after all actors have acted.
+	 */
+	public void publishSnapshot();
+}
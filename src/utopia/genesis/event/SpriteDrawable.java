@@ -0,0 +1,32 @@
+package utopia.genesis.event;
+
+import java.awt.Graphics2D;
+
+import utopia.genesis.image.SpriteBatch;
+
+/**
+ * Sprite drawables draw themselves using sprites. When drawn by a DrawableHandler, the 
+ * sprites of drawables on the same depth are collected into a single batch so that 
+ * sprites sharing a source image can be drawn together.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see utopia.genesis.image.Sprite
+ */
+public interface SpriteDrawable extends Drawable
+{
+	/**
+	 * Adds the sprites of this object to the batch. The sprites may be drawn in any order 
+	 * relative to the other sprites in the batch.
+	 * @param batch The sprite batch that will draw the sprites
+	 */
+	public void drawSprites(SpriteBatch batch);
+	
+	@Override
+	public default void drawSelf(Graphics2D g2d)
+	{
+		// When drawn outside a handler, the sprites are drawn in a batch of their own
+		SpriteBatch batch = new SpriteBatch();
+		drawSprites(batch);
+		batch.flush(g2d);
+	}
+}
@@ -15,6 +15,7 @@ public class StepHandler extends ActorHandler implements Runnable
 	private double callintervalMillis;
 	private int maxMillisPerCall;
 	private long nextupdateNanos, lastactNanos;
+	private SnapshotHandler snapshotHandler;
 	
 	
 	// CONSTRUCTOR	-------------------------------------------------------
@@ -39,6 +40,7 @@ public class StepHandler extends ActorHandler implements Runnable
 		this.maxMillisPerCall = (1000 / minActionsPerSecond);
 		this.nextupdateNanos = 0;
 		this.lastactNanos = System.nanoTime();
+		this.snapshotHandler = new SnapshotHandler();
 	}
 	
 	/**
@@ -69,6 +71,19 @@ public class StepHandler extends ActorHandler implements Runnable
 	}
 	
 	
+	// ACCESSORS	--------------------------------------------------------
+	
+	/**
+	 * @return The snapshot handler that is informed after each step. Add the handler to 
+	 * the same handler relay with the drawn objects so that the drawing thread will read 
+	 * complete states only.
+	 */
+	public SnapshotHandler getSnapshotHandler()
+	{
+		return this.snapshotHandler;
+	}
+	
+	
 	// OTHER METHODS	--------------------------------------------------
 	
 	/**
@@ -99,6 +114,9 @@ public class StepHandler extends ActorHandler implements Runnable
 		
 		act(millis);
 		
+		// Publishes the new state for the drawing thread
+		this.snapshotHandler.publishSnapshot();
+		
 		// Updates the current status
 		this.lastactNanos = thisActStartedNanos;
 		
@@ -0,0 +1,202 @@
+package utopia.genesis.image;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An image cache keeps loaded images in memory so that each image file is loaded only 
+ * once. The cache is limited by the amount of memory the images use, and the least 
+ * recently used images are removed when the limit is exceeded.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see ImageLoader
+ */
+public class ImageCache
+{
+	// ATTRIBUTES	------------------------------
+	
+	private final long maxBytes;
+	private long sizeBytes = 0;
+	// Access ordered so that the least recently used image is first
+	private final LinkedHashMap<Path, BufferedImage> images = 
+			new LinkedHashMap<>(16, 0.75f, true);
+	// The loads that are currently in progress, so that each image is loaded only once
+	private final Map<Path, CompletableFuture<BufferedImage>> loads = 
+			new ConcurrentHashMap<>();
+	
+	
+	// CONSTRUCTOR	------------------------------
+	
+	/**
+	 * Creates a new cache
+	 * @param maxBytes How much memory the cached images may use at maximum, in bytes
+	 */
+	public ImageCache(long maxBytes)
+	{
+		this.maxBytes = maxBytes;
+	}
+	
+	
+	// ACCESSORS	------------------------------
+	
+	/**
+	 * @return How much memory the cached images may use at maximum, in bytes
+	 */
+	public long getMaxBytes()
+	{
+		return this.maxBytes;
+	}
+	
+	/**
+	 * @return How much memory the cached images currently use, in bytes
+	 */
+	public synchronized long getSizeBytes()
+	{
+		return this.sizeBytes;
+	}
+	
+	/**
+	 * @return How many images are currently cached
+	 */
+	public synchronized int size()
+	{
+		return this.images.size();
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Finds an image from the cache, loading it if necessary. The loading is done on the 
+	 * calling thread. If another thread is already loading the same image, this thread 
+	 * waits for that load to complete instead.
+	 * @param path The path to the image file
+	 * @return The loaded image
+	 * @throws IOException If the image had to be loaded and the loading failed
+	 */
+	public BufferedImage get(Path path) throws IOException
+	{
+		BufferedImage image = getIfPresent(path);
+		if (image != null)
+			return image;
+		
+		CompletableFuture<BufferedImage> load = new CompletableFuture<>();
+		CompletableFuture<BufferedImage> existingLoad = this.loads.putIfAbsent(path, load);
+		if (existingLoad != null)
+			return waitFor(existingLoad);
+		
+		try
+		{
+			// The image may have been cached before the load was registered
+			image = getIfPresent(path);
+			
+			// The image is loaded outside the lock so that other images can be used 
+			// meanwhile
+			if (image == null)
+				image = put(path, ImageLoader.loadImage(path));
+			
+			load.complete(image);
+			return image;
+		}
+		catch (Throwable e)
+		{
+			load.completeExceptionally(e);
+			throw e;
+		}
+		finally
+		{
+			this.loads.remove(path, load);
+		}
+	}
+	
+	/**
+	 * Finds an image from the cache without loading it
+	 * @param path The path to the image file
+	 * @return The cached image. Null if the image isn't cached.
+	 */
+	public synchronized BufferedImage getIfPresent(Path path)
+	{
+		return this.images.get(path);
+	}
+	
+	/**
+	 * Adds an image to the cache. If the image was already cached, the cached version is 
+	 * kept.
+	 * @param path The path the image was loaded from
+	 * @param image The loaded image
+	 * @return The cached image
+	 */
+	public synchronized BufferedImage put(Path path, BufferedImage image)
+	{
+		BufferedImage existing = this.images.get(path);
+		if (existing != null)
+			return existing;
+		
+		this.images.put(path, image);
+		this.sizeBytes += ImageLoader.estimateBytes(image);
+		removeExcess(path);
+		
+		return image;
+	}
+	
+	/**
+	 * Removes an image from the cache
+	 * @param path The path the image was loaded from
+	 */
+	public synchronized void remove(Path path)
+	{
+		BufferedImage removed = this.images.remove(path);
+		if (removed != null)
+			this.sizeBytes -= ImageLoader.estimateBytes(removed);
+	}
+	
+	/**
+	 * Removes all images from the cache
+	 */
+	public synchronized void clear()
+	{
+		this.images.clear();
+		this.sizeBytes = 0;
+	}
+	
+	private static BufferedImage waitFor(CompletableFuture<BufferedImage> load) 
+			throws IOException
+	{
+		try
+		{
+			return load.join();
+		}
+		catch (CompletionException e)
+		{
+			// The failure of the other load is thrown as if this thread had loaded the image
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException)
+				throw new IOException(cause.getMessage(), cause);
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw e;
+		}
+	}
+	
+	private void removeExcess(Path keptPath)
+	{
+		// The newest image is kept even if it alone exceeds the limit
+		while (this.sizeBytes > this.maxBytes && this.images.size() > 1)
+		{
+			Map.Entry<Path, BufferedImage> eldest = this.images.entrySet().iterator().next();
+			if (eldest.getKey().equals(keptPath))
+				break;
+			
+			this.images.remove(eldest.getKey());
+			this.sizeBytes -= ImageLoader.estimateBytes(eldest.getValue());
+		}
+	}
+}
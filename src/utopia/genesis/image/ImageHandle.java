@@ -0,0 +1,207 @@
+package utopia.genesis.image;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * An image handle represents an image that is being loaded in the background. Until the 
+ * image is ready, the handle provides a placeholder image that can be drawn instead.<br>
+ * The state only moves forward: a queued image starts loading or is cancelled and a 
+ * loading image is either finished or cancelled. Each transition is made atomically, so 
+ * an image that was cancelled is never reported as ready and the completion listener is 
+ * never called after the loading was cancelled.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see ImageStreamer#load(Path, LoadPriority, BufferedImage, Consumer)
+ */
+public class ImageHandle
+{
+	// ATTRIBUTES	------------------------------
+	
+	private final Path path;
+	private final BufferedImage placeholder;
+	private final Consumer<? super ImageHandle> completionListener;
+	private final ImageStreamer streamer;
+	
+	private volatile LoadPriority priority;
+	private volatile BufferedImage image = null;
+	private final AtomicReference<LoadState> state = new AtomicReference<>(
+			LoadState.QUEUED);
+	private volatile Exception error = null;
+	
+	
+	// CONSTRUCTOR	------------------------------
+	
+	ImageHandle(ImageStreamer streamer, Path path, LoadPriority priority, 
+			BufferedImage placeholder, Consumer<? super ImageHandle> completionListener)
+	{
+		this.streamer = streamer;
+		this.path = path;
+		this.priority = priority;
+		this.placeholder = placeholder;
+		this.completionListener = completionListener;
+	}
+	
+	
+	// ACCESSORS	------------------------------
+	
+	/**
+	 * @return The path to the image file
+	 */
+	public Path getPath()
+	{
+		return this.path;
+	}
+	
+	/**
+	 * @return The current loading priority of the image
+	 */
+	public LoadPriority getPriority()
+	{
+		return this.priority;
+	}
+	
+	/**
+	 * @return The current state of the loading
+	 */
+	public LoadState getState()
+	{
+		return this.state.get();
+	}
+	
+	/**
+	 * @return Is the image loaded and ready to be drawn
+	 */
+	public boolean isReady()
+	{
+		return this.state.get() == LoadState.READY;
+	}
+	
+	/**
+	 * @return The loaded image or the placeholder if the image isn't ready yet. May be 
+	 * null if no placeholder was provided.
+	 */
+	public BufferedImage getImage()
+	{
+		// The image is only used once the loading has been completed
+		BufferedImage image = isReady() ? this.image : null;
+		return image == null ? this.placeholder : image;
+	}
+	
+	/**
+	 * @return The error that caused the loading to fail. Null if the loading hasn't failed.
+	 */
+	public Exception getError()
+	{
+		return this.state.get() == LoadState.FAILED ? this.error : null;
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Draws the image, or the placeholder if the image isn't ready yet
+	 * @param g2d The graphics object that does the drawing
+	 * @param x The x-coordinate of the image's top left corner
+	 * @param y The y-coordinate of the image's top left corner
+	 */
+	public void draw(Graphics2D g2d, int x, int y)
+	{
+		BufferedImage image = getImage();
+		if (image != null)
+			g2d.drawImage(image, x, y, null);
+	}
+	
+	/**
+	 * Changes the loading priority of the image. This has no effect if the loading has 
+	 * already started.
+	 * @param priority The new loading priority
+	 */
+	public void setPriority(LoadPriority priority)
+	{
+		if (priority == this.priority)
+			return;
+		
+		this.priority = priority;
+		this.streamer.reprioritize(this);
+	}
+	
+	/**
+	 * Cancels the loading of the image. An image that has already been loaded stays 
+	 * available.
+	 */
+	public void cancel()
+	{
+		if (this.state.compareAndSet(LoadState.QUEUED, LoadState.CANCELLED) || 
+				this.state.compareAndSet(LoadState.LOADING, LoadState.CANCELLED))
+			this.streamer.cancel(this);
+	}
+	
+	/**
+	 * Marks the loading as started
+	 * @return Should the image be loaded (false if the loading was cancelled)
+	 */
+	boolean startLoading()
+	{
+		return this.state.compareAndSet(LoadState.QUEUED, LoadState.LOADING);
+	}
+	
+	/**
+	 * Completes the loading and informs the listener. Called on the step thread. Nothing 
+	 * happens if the loading was cancelled meanwhile.
+	 * @param image The loaded image. Null if the loading failed.
+	 * @param error The error that caused the failure. Null if the loading succeeded.
+	 */
+	void complete(BufferedImage image, Exception error)
+	{
+		// The results are written before the state changes so that they're visible once 
+		// the handle is ready
+		this.image = image;
+		this.error = error;
+		if (!this.state.compareAndSet(LoadState.LOADING, image == null ? LoadState.FAILED : 
+				LoadState.READY))
+		{
+			this.image = null;
+			this.error = null;
+			return;
+		}
+		
+		if (this.completionListener != null)
+			this.completionListener.accept(this);
+	}
+	
+	
+	// ENUMERATIONS	------------------------------
+	
+	/**
+	 * The states an image handle goes through during the loading
+	 * @author Mikko Hilpinen
+	 * @since 18.10.2026
+	 */
+	public static enum LoadState
+	{
+		/**
+		 * The image is waiting to be loaded
+		 */
+		QUEUED,
+		/**
+		 * The image is being loaded
+		 */
+		LOADING,
+		/**
+		 * The image has been loaded and can be drawn
+		 */
+		READY,
+		/**
+		 * The loading failed
+		 */
+		FAILED,
+		/**
+		 * The loading was cancelled
+		 */
+		CANCELLED;
+	}
+}
@@ -0,0 +1,207 @@
+package utopia.genesis.image;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import javax.imageio.ImageIO;
+import javax.imageio.stream.ImageInputStreamImpl;
+
+/**
+ * This class loads images from files. The files are read through memory mapping and the 
+ * images are converted to the format used by the screen, so that drawing them is as fast 
+ * as possible.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class ImageLoader
+{
+	// CONSTRUCTOR	------------------------------
+	
+	private ImageLoader()
+	{
+		// Constructor is hidden since the interface is static
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Loads an image from a file and converts it to the screen compatible format
+	 * @param path The path to the image file
+	 * @return The loaded image
+	 * @throws IOException If the file couldn't be read or it isn't a supported image
+	 */
+	public static BufferedImage loadImage(Path path) throws IOException
+	{
+		return toCompatibleImage(readImage(path));
+	}
+	
+	/**
+	 * Reads an image from a file without converting it. The file is memory mapped and the 
+	 * image readers access the mapped data directly, without any stream caching.
+	 * @param path The path to the image file
+	 * @return The read image
+	 * @throws IOException If the file couldn't be read or it isn't a supported image
+	 */
+	public static BufferedImage readImage(Path path) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+		{
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, 
+					channel.size());
+			
+			// A plain input stream would be cached to a temporary file by ImageIO, so the 
+			// buffer is read through a seekable image input stream instead. ImageIO closes 
+			// the stream once the image has been read.
+			BufferedImage image = ImageIO.read(new ByteBufferImageInputStream(buffer));
+			if (image == null)
+				throw new IOException("Unsupported image format in " + path);
+			
+			return image;
+		}
+	}
+	
+	/**
+	 * Converts an image to the format used by the screen. In a headless environment, the 
+	 * image is converted to a premultiplied integer format instead.
+	 * @param image The image that is converted
+	 * @return An image in the compatible format. The same image if no conversion was 
+	 * necessary.
+	 */
+	public static BufferedImage toCompatibleImage(BufferedImage image)
+	{
+		int transparency = image.getTransparency();
+		
+		if (GraphicsEnvironment.isHeadless())
+		{
+			if (image.getType() == getHeadlessImageType(transparency))
+				return image;
+		}
+		else if (image.getColorModel().equals(getScreenConfiguration().getColorModel(
+				transparency)))
+			return image;
+		
+		BufferedImage converted = createCompatibleImage(image.getWidth(), image.getHeight(), 
+				transparency);
+		Graphics2D g2d = converted.createGraphics();
+		try
+		{
+			g2d.drawImage(image, 0, 0, null);
+		}
+		finally
+		{
+			g2d.dispose();
+		}
+		
+		return converted;
+	}
+	
+	/**
+	 * Creates a new empty image in the format used by the screen. In a headless environment, 
+	 * a premultiplied integer format is used instead.
+	 * @param width The width of the image
+	 * @param height The height of the image
+	 * @param transparency The transparency of the image (see {@link Transparency})
+	 * @return A new image in the compatible format
+	 */
+	public static BufferedImage createCompatibleImage(int width, int height, int transparency)
+	{
+		if (GraphicsEnvironment.isHeadless())
+			return new BufferedImage(width, height, getHeadlessImageType(transparency));
+		else
+			return getScreenConfiguration().createCompatibleImage(width, height, 
+					transparency);
+	}
+	
+	/**
+	 * Estimates how much memory an image uses
+	 * @param image An image
+	 * @return The estimated size of the image's pixel data in bytes
+	 */
+	public static long estimateBytes(BufferedImage image)
+	{
+		int bitsPerPixel = image.getColorModel().getPixelSize();
+		return (long) image.getWidth() * image.getHeight() * Math.max(1, (bitsPerPixel + 7) / 8);
+	}
+	
+	private static int getHeadlessImageType(int transparency)
+	{
+		return transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : 
+				BufferedImage.TYPE_INT_ARGB_PRE;
+	}
+	
+	private static GraphicsConfiguration getScreenConfiguration()
+	{
+		return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().
+				getDefaultConfiguration();
+	}
+	
+	
+	// NESTED CLASSES	--------------------------
+	
+	// Reads the image data straight from a buffer. Since the whole buffer is available, 
+	// no data needs to be cached for seeking.
+	private static class ByteBufferImageInputStream extends ImageInputStreamImpl
+	{
+		// ATTRIBUTES	--------------------------
+		
+		private final ByteBuffer buffer;
+		
+		
+		// CONSTRUCTOR	--------------------------
+		
+		public ByteBufferImageInputStream(ByteBuffer buffer)
+		{
+			this.buffer = buffer;
+		}
+		
+		
+		// IMPLEMENTED METHODS	------------------
+		
+		@Override
+		public int read()
+		{
+			this.bitOffset = 0;
+			if (this.streamPos >= this.buffer.limit())
+				return -1;
+			
+			return this.buffer.get((int) this.streamPos++) & 0xFF;
+		}
+		
+		@Override
+		public int read(byte[] b, int off, int len)
+		{
+			if (off < 0 || len < 0 || off + len > b.length)
+				throw new IndexOutOfBoundsException();
+			
+			this.bitOffset = 0;
+			if (len == 0)
+				return 0;
+			if (this.streamPos >= this.buffer.limit())
+				return -1;
+			
+			int amount = (int) Math.min(len, this.buffer.limit() - this.streamPos);
+			ByteBuffer view = this.buffer.duplicate();
+			view.position((int) this.streamPos);
+			view.get(b, off, amount);
+			this.streamPos += amount;
+			
+			return amount;
+		}
+		
+		@Override
+		public long length()
+		{
+			return this.buffer.limit();
+		}
+	}
+}
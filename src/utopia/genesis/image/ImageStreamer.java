@@ -0,0 +1,224 @@
+package utopia.genesis.image;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import utopia.genesis.event.Actor;
+import utopia.inception.util.SimpleHandled;
+
+/**
+ * An image streamer loads images on background threads so that the step and drawing 
+ * threads never wait for the disk. The images are loaded in priority order. The completed 
+ * loads are delivered on the step thread, so the streamer needs to be added to an actor 
+ * handler.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see ImageHandle
+ */
+public class ImageStreamer extends SimpleHandled implements Actor
+{
+	// ATTRIBUTES	------------------------------
+	
+	private final ImageCache cache;
+	private final ThreadPoolExecutor pool;
+	private final Map<ImageHandle, LoadTask> queuedTasks = new ConcurrentHashMap<>();
+	private final Queue<Completion> completions = new ConcurrentLinkedQueue<>();
+	private final AtomicLong nextSequence = new AtomicLong(0);
+	
+	
+	// CONSTRUCTOR	------------------------------
+	
+	/**
+	 * Creates a new streamer
+	 * @param cache The cache the loaded images are stored in. Null if no cache is used.
+	 * @param threads How many images may be loaded at once
+	 */
+	public ImageStreamer(ImageCache cache, int threads)
+	{
+		this.cache = cache;
+		
+		int threadAmount = Math.max(1, threads);
+		this.pool = new ThreadPoolExecutor(threadAmount, threadAmount, 0, 
+				TimeUnit.MILLISECONDS, new PriorityBlockingQueue<Runnable>(), runnable -> 
+		{
+			Thread thread = new Thread(runnable, "Image loader");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		});
+	}
+	
+	
+	// IMPLEMENTED METHODS	----------------------
+	
+	@Override
+	public void act(double millis)
+	{
+		// Delivers the completed loads on the step thread
+		Completion completion = this.completions.poll();
+		while (completion != null)
+		{
+			completion.handle.complete(completion.image, completion.error);
+			completion = this.completions.poll();
+		}
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Starts loading an image in the background
+	 * @param path The path to the image file
+	 * @param priority The loading priority
+	 * @param placeholder The image drawn until the image is ready. May be null.
+	 * @param completionListener The function called on the step thread once the loading 
+	 * has finished (successfully or not). May be null.
+	 * @return A handle to the loaded image
+	 */
+	public ImageHandle load(Path path, LoadPriority priority, BufferedImage placeholder, 
+			Consumer<? super ImageHandle> completionListener)
+	{
+		ImageHandle handle = new ImageHandle(this, path, priority, placeholder, 
+				completionListener);
+		
+		// Cached images don't need to be loaded, but are still delivered on the step thread
+		BufferedImage cached = this.cache == null ? null : this.cache.getIfPresent(path);
+		if (cached != null)
+		{
+			handle.startLoading();
+			this.completions.add(new Completion(handle, cached, null));
+		}
+		else
+			submit(handle);
+		
+		return handle;
+	}
+	
+	/**
+	 * @return How many images are waiting to be loaded
+	 */
+	public int getQueuedAmount()
+	{
+		return this.queuedTasks.size();
+	}
+	
+	/**
+	 * Stops the loader threads. Queued images won't be loaded anymore.
+	 */
+	public void end()
+	{
+		this.pool.shutdownNow();
+		this.queuedTasks.clear();
+	}
+	
+	void reprioritize(ImageHandle handle)
+	{
+		// Only queued tasks can be moved
+		LoadTask task = this.queuedTasks.remove(handle);
+		if (task != null && this.pool.remove(task))
+			submit(handle);
+	}
+	
+	void cancel(ImageHandle handle)
+	{
+		LoadTask task = this.queuedTasks.remove(handle);
+		if (task != null)
+			this.pool.remove(task);
+	}
+	
+	private void submit(ImageHandle handle)
+	{
+		LoadTask task = new LoadTask(handle, this.nextSequence.getAndIncrement());
+		this.queuedTasks.put(handle, task);
+		this.pool.execute(task);
+	}
+	
+	
+	// NESTED CLASSES	--------------------------
+	
+	private class LoadTask implements Runnable, Comparable<LoadTask>
+	{
+		// ATTRIBUTES	--------------------------
+		
+		private final ImageHandle handle;
+		private final LoadPriority priority;
+		private final long sequence;
+		
+		
+		// CONSTRUCTOR	--------------------------
+		
+		public LoadTask(ImageHandle handle, long sequence)
+		{
+			this.handle = handle;
+			this.priority = handle.getPriority();
+			this.sequence = sequence;
+		}
+		
+		
+		// IMPLEMENTED METHODS	------------------
+		
+		@Override
+		public int compareTo(LoadTask other)
+		{
+			// Higher priorities first, then in the order of the requests
+			int priorityDifference = this.priority.compareTo(other.priority);
+			if (priorityDifference != 0)
+				return priorityDifference;
+			return Long.compare(this.sequence, other.sequence);
+		}
+		
+		@Override
+		public void run()
+		{
+			ImageStreamer.this.queuedTasks.remove(this.handle, this);
+			if (!this.handle.startLoading())
+				return;
+			
+			BufferedImage image = null;
+			Exception error = null;
+			try
+			{
+				Path path = this.handle.getPath();
+				if (ImageStreamer.this.cache == null)
+					image = ImageLoader.loadImage(path);
+				else
+					image = ImageStreamer.this.cache.get(path);
+			}
+			catch (IOException | RuntimeException e)
+			{
+				error = e;
+			}
+			
+			ImageStreamer.this.completions.add(new Completion(this.handle, image, error));
+		}
+	}
+	
+	private static class Completion
+	{
+		// ATTRIBUTES	--------------------------
+		
+		private final ImageHandle handle;
+		private final BufferedImage image;
+		private final Exception error;
+		
+		
+		// CONSTRUCTOR	--------------------------
+		
+		public Completion(ImageHandle handle, BufferedImage image, Exception error)
+		{
+			this.handle = handle;
+			this.image = image;
+			this.error = error;
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package utopia.genesis.image;
+
+/**
+ * Load priorities determine the order in which streamed images are loaded
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see ImageStreamer
+ */
+public enum LoadPriority
+{
+	/**
+	 * The image is needed on screen right now and is loaded before anything else
+	 */
+	VISIBLE_NOW,
+	/**
+	 * The image will likely be needed soon, for example because it's near the visible area
+	 */
+	NEAR,
+	/**
+	 * The image may be needed later and is loaded when there's nothing more important to do
+	 */
+	PREFETCH;
+}
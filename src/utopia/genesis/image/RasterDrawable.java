@@ -0,0 +1,334 @@
+package utopia.genesis.image;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import utopia.genesis.event.Drawable;
+import utopia.genesis.util.ParallelTasks;
+import utopia.genesis.util.Vector3D;
+import utopia.inception.util.SimpleHandled;
+
+/**
+ * A raster drawable writes its contents directly into the pixel array of an image instead 
+ * of using Graphics2D operations, which is much faster for pixel-heavy effects. Only the 
+ * area that has been marked dirty is written again and the image is then drawn with a 
+ * single blit. The rows of the dirty area may be split between multiple threads. The 
+ * object may be drawn from multiple threads at once, since the pixels are never written 
+ * while the image is being drawn.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public abstract class RasterDrawable extends SimpleHandled implements Drawable
+{
+	// ATTRIBUTES	------------------------------
+	
+	/**
+	 * How many rows each parallel task writes at minimum
+	 */
+	private static final int MIN_PARALLEL_ROWS = 32;
+	
+	private final BufferedImage image;
+	private final int[] pixels;
+	private final int width, height;
+	
+	private volatile Vector3D position;
+	private int depth;
+	private volatile Runnable redrawListener = null;
+	
+	private Rectangle dirtyArea;
+	private final ReadWriteLock imageLock = new ReentrantReadWriteLock();
+	private volatile ExecutorService rowPool = null;
+	private int rowThreads = 1;
+	
+	
+	// CONSTRUCTOR	------------------------------
+	
+	/**
+	 * Creates a new raster drawable. The whole area is written on the first draw.
+	 * @param width The width of the pixel area
+	 * @param height The height of the pixel area
+	 * @param transparent Does the area contain transparent pixels. If true, the pixels are 
+	 * in ARGB format, otherwise in RGB format.
+	 * @param position The position of the area's top left corner
+	 * @param depth The depth the area is drawn at
+	 */
+	public RasterDrawable(int width, int height, boolean transparent, Vector3D position, 
+			int depth)
+	{
+		this.width = Math.max(1, width);
+		this.height = Math.max(1, height);
+		this.position = position;
+		this.depth = depth;
+		
+		this.image = new BufferedImage(this.width, this.height, transparent ? 
+				BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+		this.pixels = ((DataBufferInt) this.image.getRaster().getDataBuffer()).getData();
+		this.dirtyArea = new Rectangle(0, 0, this.width, this.height);
+	}
+	
+	
+	// ABSTRACT METHODS	--------------------------
+	
+	/**
+	 * Writes the pixels in an area. When parallel rows are used, this method may be called 
+	 * from multiple threads at once, each handling a separate range of rows.
+	 * @param pixels The pixel array. The pixel at (x, y) is at index y * scanline + x.
+	 * @param scanline The width of a single row in the pixel array
+	 * @param minX The first written column
+	 * @param minY The first written row
+	 * @param maxX The column after the last written column
+	 * @param maxY The row after the last written row
+	 */
+	protected abstract void writePixels(int[] pixels, int scanline, int minX, int minY, 
+			int maxX, int maxY);
+	
+	
+	// IMPLEMENTED METHODS	----------------------
+	
+	@Override
+	public void drawSelf(Graphics2D g2d)
+	{
+		update();
+		
+		// Multiple threads may blit the image at once, but not while it's being written
+		Vector3D position = this.position;
+		this.imageLock.readLock().lock();
+		try
+		{
+			g2d.drawImage(this.image, position.getXInt(), position.getYInt(), null);
+		}
+		finally
+		{
+			this.imageLock.readLock().unlock();
+		}
+	}
+	
+	@Override
+	public Object prepareFrame()
+	{
+		// The pixels are written before the frame is drawn in parts. All frames share the 
+		// same pixels, so no state is picked.
+		update();
+		return null;
+	}
+	
+	@Override
+	public int getDepth()
+	{
+		return this.depth;
+	}
+	
+	@Override
+	public void setRedrawListener(Runnable listener)
+	{
+		this.redrawListener = listener;
+	}
+	
+	@Override
+	public Rectangle2D getDrawBounds()
+	{
+		Vector3D position = this.position;
+		return new Rectangle2D.Double(position.getXInt(), position.getYInt(), this.width, 
+				this.height);
+	}
+	
+	
+	// ACCESSORS	------------------------------
+	
+	/**
+	 * @return The width of the pixel area
+	 */
+	public int getWidth()
+	{
+		return this.width;
+	}
+	
+	/**
+	 * @return The height of the pixel area
+	 */
+	public int getHeight()
+	{
+		return this.height;
+	}
+	
+	/**
+	 * @return The position of the area's top left corner
+	 */
+	public Vector3D getPosition()
+	{
+		return this.position;
+	}
+	
+	/**
+	 * Moves the drawn area. The pixels don't need to be written again.
+	 * @param position The new position of the area's top left corner
+	 */
+	public void setPosition(Vector3D position)
+	{
+		this.position = position;
+		requestRedraw();
+	}
+	
+	/**
+	 * Changes the depth the area is drawn at
+	 * @param depth The new drawing depth
+	 */
+	public void setDepth(int depth)
+	{
+		this.depth = depth;
+	}
+	
+	/**
+	 * Changes whether the rows are written on multiple threads. Parallel writing is only 
+	 * used when the dirty area is tall enough to make it worthwhile.
+	 * @param threads How many threads are used for writing the rows. 1 or less disables 
+	 * parallel writing.
+	 */
+	public void setParallelRows(int threads)
+	{
+		ExecutorService previous = this.rowPool;
+		if (threads > 1)
+		{
+			this.rowThreads = threads;
+			this.rowPool = Executors.newFixedThreadPool(threads, runnable -> 
+			{
+				Thread thread = new Thread(runnable, "Raster writer");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		else
+		{
+			this.rowThreads = 1;
+			this.rowPool = null;
+		}
+		
+		if (previous != null)
+			previous.shutdown();
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Marks the whole area to be written again on the next draw
+	 */
+	public void invalidate()
+	{
+		invalidate(0, 0, this.width, this.height);
+	}
+	
+	/**
+	 * Marks an area to be written again on the next draw and requests the object to be 
+	 * redrawn. May be called from any thread.
+	 * @param x The x-coordinate of the area's top left corner (in pixels)
+	 * @param y The y-coordinate of the area's top left corner (in pixels)
+	 * @param width The width of the area
+	 * @param height The height of the area
+	 */
+	public void invalidate(int x, int y, int width, int height)
+	{
+		Rectangle area = new Rectangle(x, y, width, height).intersection(
+				new Rectangle(0, 0, this.width, this.height));
+		if (area.isEmpty())
+			return;
+		
+		synchronized (this)
+		{
+			if (this.dirtyArea == null)
+				this.dirtyArea = area;
+			else
+				this.dirtyArea.add(area);
+		}
+		
+		requestRedraw();
+	}
+	
+	/**
+	 * Writes the dirty area of the pixels. This is done automatically when a new frame is 
+	 * prepared and when the object is drawn. The image isn't drawn while the pixels are 
+	 * being written. If the writing fails, the area stays dirty.
+	 */
+	public void update()
+	{
+		this.imageLock.writeLock().lock();
+		try
+		{
+			Rectangle area;
+			synchronized (this)
+			{
+				area = this.dirtyArea;
+				this.dirtyArea = null;
+			}
+			if (area == null)
+				return;
+			
+			if (!writeArea(area))
+				invalidate(area.x, area.y, area.width, area.height);
+		}
+		finally
+		{
+			this.imageLock.writeLock().unlock();
+		}
+	}
+	
+	/**
+	 * Stops the threads used for parallel writing
+	 */
+	public void end()
+	{
+		setParallelRows(1);
+	}
+	
+	private void requestRedraw()
+	{
+		Runnable listener = this.redrawListener;
+		if (listener != null)
+			listener.run();
+	}
+	
+	private boolean writeArea(Rectangle area)
+	{
+		int minX = area.x, maxX = area.x + area.width;
+		int minY = area.y, maxY = area.y + area.height;
+		
+		// Tall areas may be split into bands of rows that are written in parallel
+		ExecutorService pool = this.rowPool;
+		int tasks = Math.min(this.rowThreads, area.height / MIN_PARALLEL_ROWS);
+		if (pool == null || tasks < 2)
+		{
+			try
+			{
+				writePixels(this.pixels, this.width, minX, minY, maxX, maxY);
+				return true;
+			}
+			catch (RuntimeException e)
+			{
+				System.err.println("Failure during pixel writing");
+				e.printStackTrace();
+				return false;
+			}
+		}
+		
+		int bandHeight = (area.height + tasks - 1) / tasks;
+		List<Runnable> bands = new ArrayList<>(tasks);
+		for (int bandStart = minY; bandStart < maxY; bandStart += bandHeight)
+		{
+			int bandMinY = bandStart;
+			int bandMaxY = Math.min(maxY, bandStart + bandHeight);
+			bands.add(() -> writePixels(this.pixels, this.width, minX, bandMinY, maxX, 
+					bandMaxY));
+		}
+		
+		return ParallelTasks.runAll(pool, bands, "pixel writing");
+	}
+}
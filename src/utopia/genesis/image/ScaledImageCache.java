@@ -0,0 +1,249 @@
+package utopia.genesis.image;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A scaled image cache keeps copies of images that have been scaled to the drawing scaling 
+ * beforehand. Those images can then be drawn 1:1 instead of being resampled on every 
+ * frame. The scaled copies are generated in the background. Until a copy is ready, the 
+ * original image is drawn instead.<br>
+ * The copies are keyed by the effective device scaling, which is read from the transform 
+ * of the graphics object the image is drawn with. That scaling includes the panel scaling 
+ * as well as any back buffer, dynamic resolution or display (HiDPI) scaling, so a copy is 
+ * never drawn at a size it wasn't made for. A few copies are kept for each image so that 
+ * images drawn at multiple scalings (for example in split panels) aren't scaled again on 
+ * every frame.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see utopia.genesis.video.GamePanel#getScaledImageCache()
+ */
+public class ScaledImageCache
+{
+	// ATTRIBUTES	------------------------------
+	
+	private static final AffineTransform IDENTITY = new AffineTransform();
+	/**
+	 * How many differently scaled copies are kept for each image
+	 */
+	private static final int MAX_COPIES = 2;
+	
+	// The source images are weakly referenced so that the cache doesn't keep them alive
+	private final Map<BufferedImage, ScaledImage> images = new WeakHashMap<>();
+	private final ExecutorService scaler = Executors.newSingleThreadExecutor(runnable -> 
+	{
+		Thread thread = new Thread(runnable, "Image scaler");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		return thread;
+	});
+	
+	
+	// ACCESSORS	------------------------------
+	
+	/**
+	 * @return How many images are currently tracked by the cache
+	 */
+	public int size()
+	{
+		synchronized (this.images)
+		{
+			return this.images.size();
+		}
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Finds a copy of the image that has been scaled to a specific scaling. If there is 
+	 * no such copy yet, one is created in the background.
+	 * @param source The original image
+	 * @param scaling The device scaling the image is drawn at
+	 * @return The scaled copy of the image or null if it isn't ready yet
+	 */
+	public BufferedImage getScaledImage(BufferedImage source, double scaling)
+	{
+		if (scaling == 1)
+			return source;
+		if (!(scaling > 0) || Double.isInfinite(scaling))
+			return null;
+		
+		BufferedImage scaled = getEntry(source).getImage(scaling);
+		if (scaled == null)
+			requestScaling(source, scaling);
+		
+		return scaled;
+	}
+	
+	/**
+	 * Draws an image. If the graphics object only translates and scales uniformly, a copy 
+	 * of the image scaled to the graphics object's device scaling is drawn 1:1 at the 
+	 * matching pixel position. Otherwise, or if the copy isn't ready yet, the original 
+	 * image is drawn normally.
+	 * @param g2d The graphics object that does the drawing
+	 * @param source The original image
+	 * @param x The x-coordinate of the image's top left corner (in game world units)
+	 * @param y The y-coordinate of the image's top left corner (in game world units)
+	 */
+	public void drawImage(Graphics2D g2d, BufferedImage source, double x, double y)
+	{
+		AffineTransform transform = g2d.getTransform();
+		double scaling = transform.getScaleX();
+		
+		if (transform.getShearX() == 0 && transform.getShearY() == 0 && 
+				transform.getScaleY() == scaling)
+		{
+			BufferedImage scaled = getScaledImage(source, scaling);
+			if (scaled != null)
+			{
+				int deviceX = (int) Math.round(x * scaling + transform.getTranslateX());
+				int deviceY = (int) Math.round(y * scaling + transform.getTranslateY());
+				
+				g2d.setTransform(IDENTITY);
+				g2d.drawImage(scaled, deviceX, deviceY, null);
+				g2d.setTransform(transform);
+				return;
+			}
+		}
+		
+		AffineTransform drawTransform = new AffineTransform(transform);
+		drawTransform.translate(x, y);
+		g2d.setTransform(drawTransform);
+		g2d.drawImage(source, 0, 0, null);
+		g2d.setTransform(transform);
+	}
+	
+	/**
+	 * Removes all the scaled images from the cache
+	 */
+	public void clear()
+	{
+		synchronized (this.images)
+		{
+			this.images.clear();
+		}
+	}
+	
+	private ScaledImage getEntry(BufferedImage source)
+	{
+		synchronized (this.images)
+		{
+			ScaledImage entry = this.images.get(source);
+			if (entry == null)
+			{
+				entry = new ScaledImage();
+				this.images.put(source, entry);
+			}
+			
+			return entry;
+		}
+	}
+	
+	private void requestScaling(BufferedImage source, double scaling)
+	{
+		ScaledImage entry = getEntry(source);
+		if (!entry.request(scaling))
+			return;
+		
+		this.scaler.execute(() -> 
+		{
+			// Skips the work if the image has been requested at another scaling since
+			if (entry.isOutdated(scaling))
+				entry.cancel(scaling);
+			else
+				entry.setImage(scale(source, scaling), scaling);
+		});
+	}
+	
+	private static BufferedImage scale(BufferedImage source, double scaling)
+	{
+		int width = Math.max(1, (int) Math.round(source.getWidth() * scaling));
+		int height = Math.max(1, (int) Math.round(source.getHeight() * scaling));
+		
+		BufferedImage scaled = ImageLoader.createCompatibleImage(width, height, 
+				source.getTransparency());
+		Graphics2D g2d = scaled.createGraphics();
+		try
+		{
+			// Since the scaling is done only once, the best quality can be used
+			g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, 
+					RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+			g2d.setRenderingHint(RenderingHints.KEY_RENDERING, 
+					RenderingHints.VALUE_RENDER_QUALITY);
+			g2d.drawImage(source, 0, 0, width, height, null);
+		}
+		finally
+		{
+			g2d.dispose();
+		}
+		
+		return scaled;
+	}
+	
+	
+	// NESTED CLASSES	--------------------------
+	
+	private static class ScaledImage
+	{
+		// ATTRIBUTES	--------------------------
+		
+		// The least recently used copy is removed first
+		private final Map<Double, BufferedImage> copies = new LinkedHashMap<Double, 
+				BufferedImage>(MAX_COPIES * 2, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Double, BufferedImage> eldest)
+			{
+				return size() > MAX_COPIES;
+			}
+		};
+		private final Set<Double> pendingScalings = new HashSet<>();
+		private double latestRequest = 0;
+		
+		
+		// OTHER METHODS	----------------------
+		
+		public synchronized BufferedImage getImage(double scaling)
+		{
+			return this.copies.get(scaling);
+		}
+		
+		public synchronized void setImage(BufferedImage image, double scaling)
+		{
+			this.pendingScalings.remove(scaling);
+			this.copies.put(scaling, image);
+		}
+		
+		public synchronized boolean request(double scaling)
+		{
+			// Each scaling is requested only once
+			this.latestRequest = scaling;
+			if (this.copies.containsKey(scaling) || this.pendingScalings.contains(scaling))
+				return false;
+			this.pendingScalings.add(scaling);
+			return true;
+		}
+		
+		public synchronized boolean isOutdated(double scaling)
+		{
+			return this.latestRequest != scaling;
+		}
+		
+		public synchronized void cancel(double scaling)
+		{
+			this.pendingScalings.remove(scaling);
+		}
+	}
+}
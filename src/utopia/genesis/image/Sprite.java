@@ -0,0 +1,139 @@
+package utopia.genesis.image;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import utopia.genesis.util.Vector3D;
+
+/**
+ * A sprite is an image or an area of an image that can be drawn. Multiple sprites may share 
+ * the same source image (for example a sprite sheet or an atlas), in which case they can be 
+ * drawn efficiently in batches. Sprites are immutable.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see SpriteBatch
+ */
+public class Sprite
+{
+	// ATTRIBUTES	------------------------------
+	
+	private BufferedImage source;
+	private int x, y, width, height;
+	private Vector3D origin;
+	
+	
+	// CONSTRUCTOR	------------------------------
+	
+	/**
+	 * Creates a new sprite that covers the whole image
+	 * @param image The image drawn by this sprite
+	 * @param origin The origin of the sprite, relative to the sprite's top left corner
+	 */
+	public Sprite(BufferedImage image, Vector3D origin)
+	{
+		this(image, 0, 0, image.getWidth(), image.getHeight(), origin);
+	}
+	
+	/**
+	 * Creates a new sprite that covers an area of the source image
+	 * @param source The image that contains the sprite
+	 * @param x The x-coordinate of the sprite's top left corner in the source image
+	 * @param y The y-coordinate of the sprite's top left corner in the source image
+	 * @param width The width of the sprite in pixels
+	 * @param height The height of the sprite in pixels
+	 * @param origin The origin of the sprite, relative to the sprite's top left corner
+	 */
+	public Sprite(BufferedImage source, int x, int y, int width, int height, Vector3D origin)
+	{
+		this.source = source;
+		this.x = x;
+		this.y = y;
+		this.width = width;
+		this.height = height;
+		this.origin = origin;
+	}
+	
+	
+	// ACCESSORS	------------------------------
+	
+	/**
+	 * @return The image that contains this sprite. The sprite may cover only a part of the 
+	 * image.
+	 */
+	public BufferedImage getSource()
+	{
+		return this.source;
+	}
+	
+	/**
+	 * @return The x-coordinate of the sprite's top left corner in the source image
+	 */
+	public int getX()
+	{
+		return this.x;
+	}
+	
+	/**
+	 * @return The y-coordinate of the sprite's top left corner in the source image
+	 */
+	public int getY()
+	{
+		return this.y;
+	}
+	
+	/**
+	 * @return The width of the sprite in pixels
+	 */
+	public int getWidth()
+	{
+		return this.width;
+	}
+	
+	/**
+	 * @return The height of the sprite in pixels
+	 */
+	public int getHeight()
+	{
+		return this.height;
+	}
+	
+	/**
+	 * @return The size of the sprite in pixels
+	 */
+	public Vector3D getSize()
+	{
+		return new Vector3D(getWidth(), getHeight());
+	}
+	
+	/**
+	 * @return The origin of the sprite, relative to the sprite's top left corner
+	 */
+	public Vector3D getOrigin()
+	{
+		return this.origin;
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * @param origin The new origin of the sprite
+	 * @return A sprite like this one except with the provided origin
+	 */
+	public Sprite withOrigin(Vector3D origin)
+	{
+		return new Sprite(this.source, this.x, this.y, this.width, this.height, origin);
+	}
+	
+	/**
+	 * Draws the sprite so that its origin is at (0, 0)
+	 * @param g2d The graphics object that does the drawing
+	 */
+	public void draw(Graphics2D g2d)
+	{
+		int drawX = -getOrigin().getXInt();
+		int drawY = -getOrigin().getYInt();
+		g2d.drawImage(this.source, drawX, drawY, drawX + this.width, drawY + this.height, 
+				this.x, this.y, this.x + this.width, this.y + this.height, null);
+	}
+}
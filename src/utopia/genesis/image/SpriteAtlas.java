@@ -0,0 +1,134 @@
+package utopia.genesis.image;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import utopia.genesis.util.Vector3D;
+
+/**
+ * A sprite atlas packs multiple images into a single large image. The sprites in an atlas 
+ * share the same source image, so they can be drawn efficiently in a single sprite batch. 
+ * The images are packed into horizontal shelves, so adding the tallest images first 
+ * leaves the least unused space.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see SpriteBatch
+ */
+public class SpriteAtlas
+{
+	// ATTRIBUTES	------------------------------
+	
+	private static final AtomicInteger NEXT_ID = new AtomicInteger(1);
+	
+	private final int id;
+	private final BufferedImage image;
+	private final int padding;
+	private final Map<String, Sprite> sprites = new HashMap<>();
+	
+	private int shelfX = 0, shelfY = 0, shelfHeight = 0;
+	
+	
+	// CONSTRUCTOR	------------------------------
+	
+	/**
+	 * Creates a new empty atlas
+	 * @param width The width of the atlas image in pixels
+	 * @param height The height of the atlas image in pixels
+	 * @param padding How many empty pixels are left between the sprites. Padding prevents 
+	 * the neighbouring sprites from bleeding in when the sprites are scaled.
+	 */
+	public SpriteAtlas(int width, int height, int padding)
+	{
+		this.id = NEXT_ID.getAndIncrement();
+		this.padding = Math.max(0, padding);
+		this.image = ImageLoader.toCompatibleImage(new BufferedImage(width, height, 
+				BufferedImage.TYPE_INT_ARGB_PRE));
+	}
+	
+	
+	// ACCESSORS	------------------------------
+	
+	/**
+	 * @return A unique identifier of this atlas. Drawables that draw sprites from this 
+	 * atlas can use it as their material id.
+	 * @see utopia.genesis.event.Drawable#getMaterialId()
+	 */
+	public int getId()
+	{
+		return this.id;
+	}
+	
+	/**
+	 * @return The image that contains the packed sprites
+	 */
+	public BufferedImage getImage()
+	{
+		return this.image;
+	}
+	
+	/**
+	 * @param name The name of a sprite
+	 * @return The sprite with the given name. Null if there is no such sprite in this atlas.
+	 */
+	public synchronized Sprite getSprite(String name)
+	{
+		return this.sprites.get(name);
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Packs an image into the atlas
+	 * @param name The name of the sprite
+	 * @param image The image that is packed
+	 * @param origin The origin of the sprite
+	 * @return A sprite that draws the image from the atlas. Null if the image doesn't fit 
+	 * into the atlas.
+	 */
+	public synchronized Sprite add(String name, BufferedImage image, Vector3D origin)
+	{
+		int width = image.getWidth();
+		int height = image.getHeight();
+		int atlasWidth = this.image.getWidth();
+		int atlasHeight = this.image.getHeight();
+		
+		if (width > atlasWidth || height > atlasHeight)
+			return null;
+		
+		// Starts a new shelf when the current one is full
+		if (this.shelfX + width > atlasWidth)
+		{
+			this.shelfY += this.shelfHeight + this.padding;
+			this.shelfX = 0;
+			this.shelfHeight = 0;
+		}
+		if (this.shelfY + height > atlasHeight)
+			return null;
+		
+		int x = this.shelfX;
+		int y = this.shelfY;
+		
+		Graphics2D g2d = this.image.createGraphics();
+		try
+		{
+			g2d.setComposite(AlphaComposite.Src);
+			g2d.drawImage(image, x, y, null);
+		}
+		finally
+		{
+			g2d.dispose();
+		}
+		
+		this.shelfX += width + this.padding;
+		this.shelfHeight = Math.max(this.shelfHeight, height);
+		
+		Sprite sprite = new Sprite(this.image, x, y, width, height, origin);
+		this.sprites.put(name, sprite);
+		return sprite;
+	}
+}
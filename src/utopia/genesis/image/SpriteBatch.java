@@ -0,0 +1,236 @@
+package utopia.genesis.image;
+
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import utopia.genesis.util.StateCachingGraphics;
+import utopia.genesis.util.Transformation;
+
+/**
+ * A sprite batch collects sprite draws and issues them all at once, grouped by their 
+ * composite and source image, so that the graphics state changes as rarely as possible. 
+ * Since the order of the draws is changed, only sprites that may be drawn in any order 
+ * (for example, sprites on the same depth) should be drawn in the same batch. Sprites that 
+ * share a source image (a sprite sheet or an atlas) are drawn one after another.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class SpriteBatch
+{
+	// ATTRIBUTES	------------------------------
+	
+	private static final int INITIAL_CAPACITY = 64;
+	
+	private Sprite[] sprites = new Sprite[INITIAL_CAPACITY];
+	// Each draw has a 2x3 matrix that already contains the sprite's origin
+	private double[] matrices = new double[INITIAL_CAPACITY * 6];
+	private int[] alphaLevels = new int[INITIAL_CAPACITY];
+	private long[] keys = new long[INITIAL_CAPACITY];
+	private int size = 0;
+	
+	private final Map<BufferedImage, Integer> imageIndices = new IdentityHashMap<>();
+	private final AffineTransform drawTransform = new AffineTransform();
+	private final double[] matrix = new double[6];
+	
+	
+	// ACCESSORS	------------------------------
+	
+	/**
+	 * @return The amount of sprite draws waiting in the batch
+	 */
+	public int size()
+	{
+		return this.size;
+	}
+	
+	/**
+	 * @return Is the batch empty
+	 */
+	public boolean isEmpty()
+	{
+		return this.size == 0;
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Adds a new sprite draw to the batch
+	 * @param sprite The sprite that is drawn
+	 * @param x The x-coordinate where the sprite's origin is drawn
+	 * @param y The y-coordinate where the sprite's origin is drawn
+	 */
+	public void add(Sprite sprite, double x, double y)
+	{
+		add(sprite, 1, 0, 0, 1, x, y, 1);
+	}
+	
+	/**
+	 * Adds a new sprite draw to the batch
+	 * @param sprite The sprite that is drawn
+	 * @param x The x-coordinate where the sprite's origin is drawn
+	 * @param y The y-coordinate where the sprite's origin is drawn
+	 * @param alpha The alpha value the sprite is drawn with [0, 1]
+	 */
+	public void add(Sprite sprite, double x, double y, float alpha)
+	{
+		add(sprite, 1, 0, 0, 1, x, y, alpha);
+	}
+	
+	/**
+	 * Adds a new sprite draw to the batch
+	 * @param sprite The sprite that is drawn
+	 * @param transform The transform the sprite is drawn with. The sprite's origin is 
+	 * placed at the transform's origin.
+	 * @param alpha The alpha value the sprite is drawn with [0, 1]
+	 */
+	public void add(Sprite sprite, AffineTransform transform, float alpha)
+	{
+		add(sprite, transform.getScaleX(), transform.getShearY(), transform.getShearX(), 
+				transform.getScaleY(), transform.getTranslateX(), 
+				transform.getTranslateY(), alpha);
+	}
+	
+	/**
+	 * Adds a new sprite draw to the batch
+	 * @param sprite The sprite that is drawn
+	 * @param transformation The transformation the sprite is drawn with. The sprite's 
+	 * origin is placed at the transformation's position.
+	 * @param alpha The alpha value the sprite is drawn with [0, 1]
+	 */
+	public void add(Sprite sprite, Transformation transformation, float alpha)
+	{
+		transformation.getMatrix(this.matrix);
+		add(sprite, this.matrix[0], this.matrix[1], this.matrix[2], this.matrix[3], 
+				this.matrix[4], this.matrix[5], alpha);
+	}
+	
+	/**
+	 * Draws all the sprites in the batch and empties the batch. The graphics object's 
+	 * transform and composite are the same after the call as they were before it.
+	 * @param g2d The graphics object that draws the sprites
+	 */
+	public void flush(Graphics2D g2d)
+	{
+		if (isEmpty())
+			return;
+		
+		// Sorts the draws by composite first and then by source image. The images are 
+		// indexed in the order they first appear in.
+		for (int i = 0; i < this.size; i++)
+		{
+			Integer imageIndex = this.imageIndices.get(this.sprites[i].getSource());
+			if (imageIndex == null)
+			{
+				imageIndex = this.imageIndices.size();
+				this.imageIndices.put(this.sprites[i].getSource(), imageIndex);
+			}
+			
+			this.keys[i] = ((long) this.alphaLevels[i] << 52) | 
+					((long) imageIndex << 32) | i;
+		}
+		Arrays.sort(this.keys, 0, this.size);
+		
+		AffineTransform baseTransform = g2d.getTransform();
+		Composite originalComposite = g2d.getComposite();
+		boolean transformChanged = false;
+		int currentAlphaLevel = -1;
+		
+		for (int k = 0; k < this.size; k++)
+		{
+			int i = (int) this.keys[k];
+			
+			if (this.alphaLevels[i] != currentAlphaLevel)
+			{
+				currentAlphaLevel = this.alphaLevels[i];
+				g2d.setComposite(StateCachingGraphics.getAlphaComposite(
+						currentAlphaLevel / 255f));
+			}
+			
+			Sprite sprite = this.sprites[i];
+			int m = i * 6;
+			int sx = sprite.getX();
+			int sy = sprite.getY();
+			int w = sprite.getWidth();
+			int h = sprite.getHeight();
+			
+			// Sprites that are only moved by whole pixels don't need a transform change
+			double tx = this.matrices[m + 4];
+			double ty = this.matrices[m + 5];
+			if (this.matrices[m] == 1 && this.matrices[m + 1] == 0 && 
+					this.matrices[m + 2] == 0 && this.matrices[m + 3] == 1 && 
+					tx == Math.rint(tx) && ty == Math.rint(ty))
+			{
+				if (transformChanged)
+				{
+					g2d.setTransform(baseTransform);
+					transformChanged = false;
+				}
+				int dx = (int) tx;
+				int dy = (int) ty;
+				g2d.drawImage(sprite.getSource(), dx, dy, dx + w, dy + h, sx, sy, sx + w, 
+						sy + h, null);
+			}
+			else
+			{
+				this.drawTransform.setTransform(this.matrices[m], this.matrices[m + 1], 
+						this.matrices[m + 2], this.matrices[m + 3], tx, ty);
+				if (transformChanged)
+					g2d.setTransform(baseTransform);
+				g2d.transform(this.drawTransform);
+				transformChanged = true;
+				g2d.drawImage(sprite.getSource(), 0, 0, w, h, sx, sy, sx + w, sy + h, null);
+			}
+		}
+		
+		if (transformChanged)
+			g2d.setTransform(baseTransform);
+		g2d.setComposite(originalComposite);
+		
+		clear();
+	}
+	
+	/**
+	 * Removes all the sprite draws from the batch without drawing them
+	 */
+	public void clear()
+	{
+		Arrays.fill(this.sprites, 0, this.size, null);
+		this.imageIndices.clear();
+		this.size = 0;
+	}
+	
+	private void add(Sprite sprite, double m00, double m10, double m01, double m11, 
+			double m02, double m12, float alpha)
+	{
+		if (this.size == this.sprites.length)
+		{
+			int capacity = this.size * 2;
+			this.sprites = Arrays.copyOf(this.sprites, capacity);
+			this.matrices = Arrays.copyOf(this.matrices, capacity * 6);
+			this.alphaLevels = Arrays.copyOf(this.alphaLevels, capacity);
+			this.keys = Arrays.copyOf(this.keys, capacity);
+		}
+		
+		// The sprite's origin is moved to the transformation's origin
+		double ox = sprite.getOrigin().getX();
+		double oy = sprite.getOrigin().getY();
+		
+		int m = this.size * 6;
+		this.matrices[m] = m00;
+		this.matrices[m + 1] = m10;
+		this.matrices[m + 2] = m01;
+		this.matrices[m + 3] = m11;
+		this.matrices[m + 4] = m02 - m00 * ox - m01 * oy;
+		this.matrices[m + 5] = m12 - m10 * ox - m11 * oy;
+		
+		this.sprites[this.size] = sprite;
+		this.alphaLevels[this.size] = Math.round(Math.max(0, Math.min(1, alpha)) * 255);
+		this.size ++;
+	}
+}
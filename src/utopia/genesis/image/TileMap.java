@@ -0,0 +1,494 @@
+package utopia.genesis.image;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import utopia.genesis.event.Drawable;
+import utopia.genesis.util.Vector3D;
+import utopia.inception.util.SimpleHandled;
+
+/**
+ * A tile map draws a grid of tiles as a single drawable. The tiles are stored as indices 
+ * to a tile set and grouped into square chunks. Each chunk is drawn into a cached image 
+ * once, after which drawing the chunk is a single image blit. A chunk is drawn again only 
+ * when it's visible and some of its tiles have changed. Only a limited amount of chunk 
+ * images is kept in memory. When the limit is exceeded, the images of the chunks that were 
+ * drawn least recently (usually the ones that are off-screen) are released.<br>
+ * The map may be drawn from multiple threads at once (by the tiled renderer, for example). 
+ * Each chunk is redrawn and blitted while holding that chunk's lock, so a chunk image is 
+ * never cleared while another thread is drawing it. The tiles may be changed from any 
+ * thread.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class TileMap extends SimpleHandled implements Drawable
+{
+	// ATTRIBUTES	------------------------------
+	
+	/**
+	 * The tile index used for empty tiles
+	 */
+	public static final int EMPTY = -1;
+	/**
+	 * How many chunk images are kept in memory by default
+	 */
+	public static final int DEFAULT_MAX_CACHED_CHUNKS = 256;
+	
+	private final Sprite[] tileSet;
+	private final int columns, rows, tileWidth, tileHeight, chunkSize;
+	private final int chunkColumns, chunkRows;
+	private final int[] tiles;
+	
+	// Each chunk has a version that is increased when it changes. The cached image is 
+	// valid as long as it was drawn from the current version. The drawn versions and 
+	// images are only accessed while holding the chunk's lock.
+	private final AtomicIntegerArray chunkVersions;
+	private final int[] drawnVersions;
+	private final BufferedImage[] chunkImages;
+	private final Object[] chunkLocks;
+	
+	// The indices of the chunks that currently have an image, least recently drawn first. 
+	// Used as its own lock, which may be acquired while holding a chunk lock but not the 
+	// other way around.
+	private final int maxCachedChunks;
+	private final LinkedHashSet<Integer> cachedChunks = new LinkedHashSet<>();
+	
+	private volatile Vector3D position;
+	private int depth;
+	private volatile Runnable redrawListener = null;
+	
+	
+	// CONSTRUCTOR	------------------------------
+	
+	/**
+	 * Creates a new tile map. All tiles are empty initially.
+	 * @param tileSet The sprites the tiles are drawn with. A tile's index points to this 
+	 * array. The sprites are stretched to the tile size and their origins are ignored.
+	 * @param columns How many tiles there are horizontally
+	 * @param rows How many tiles there are vertically
+	 * @param tileWidth The width of a single tile in game world units
+	 * @param tileHeight The height of a single tile in game world units
+	 * @param chunkSize The width and height of a single chunk in tiles
+	 * @param position The position of the map's top left corner
+	 * @param depth The depth the map is drawn at
+	 */
+	public TileMap(Sprite[] tileSet, int columns, int rows, int tileWidth, int tileHeight, 
+			int chunkSize, Vector3D position, int depth)
+	{
+		this(tileSet, columns, rows, tileWidth, tileHeight, chunkSize, position, depth, 
+				DEFAULT_MAX_CACHED_CHUNKS);
+	}
+	
+	/**
+	 * Creates a new tile map. All tiles are empty initially.
+	 * @param tileSet The sprites the tiles are drawn with. A tile's index points to this 
+	 * array. The sprites are stretched to the tile size and their origins are ignored.
+	 * @param columns How many tiles there are horizontally
+	 * @param rows How many tiles there are vertically
+	 * @param tileWidth The width of a single tile in game world units
+	 * @param tileHeight The height of a single tile in game world units
+	 * @param chunkSize The width and height of a single chunk in tiles
+	 * @param position The position of the map's top left corner
+	 * @param depth The depth the map is drawn at
+	 * @param maxCachedChunks How many chunk images are kept in memory at maximum. This 
+	 * should be larger than the amount of chunks visible at once, so that the visible 
+	 * chunks don't have to be drawn again on every frame.
+	 */
+	public TileMap(Sprite[] tileSet, int columns, int rows, int tileWidth, int tileHeight, 
+			int chunkSize, Vector3D position, int depth, int maxCachedChunks)
+	{
+		this.tileSet = tileSet;
+		this.columns = Math.max(1, columns);
+		this.rows = Math.max(1, rows);
+		this.tileWidth = Math.max(1, tileWidth);
+		this.tileHeight = Math.max(1, tileHeight);
+		this.chunkSize = Math.max(1, chunkSize);
+		this.position = position;
+		this.depth = depth;
+		this.maxCachedChunks = Math.max(1, maxCachedChunks);
+		
+		this.tiles = new int[this.columns * this.rows];
+		Arrays.fill(this.tiles, EMPTY);
+		
+		this.chunkColumns = (this.columns + this.chunkSize - 1) / this.chunkSize;
+		this.chunkRows = (this.rows + this.chunkSize - 1) / this.chunkSize;
+		int chunkAmount = this.chunkColumns * this.chunkRows;
+		this.chunkVersions = new AtomicIntegerArray(chunkAmount);
+		this.drawnVersions = new int[chunkAmount];
+		Arrays.fill(this.drawnVersions, -1);
+		this.chunkImages = new BufferedImage[chunkAmount];
+		this.chunkLocks = new Object[chunkAmount];
+		for (int i = 0; i < chunkAmount; i++)
+		{
+			this.chunkLocks[i] = new Object();
+		}
+	}
+	
+	
+	// IMPLEMENTED METHODS	----------------------
+	
+	@Override
+	public void drawSelf(Graphics2D g2d)
+	{
+		Vector3D position = this.position;
+		int offsetX = position.getXInt();
+		int offsetY = position.getYInt();
+		int chunkWidth = this.chunkSize * this.tileWidth;
+		int chunkHeight = this.chunkSize * this.tileHeight;
+		
+		// Only the chunks inside the clip area are drawn
+		int firstColumn = 0, firstRow = 0;
+		int lastColumn = this.chunkColumns - 1, lastRow = this.chunkRows - 1;
+		Rectangle clip = g2d.getClipBounds();
+		if (clip != null)
+		{
+			firstColumn = Math.max(firstColumn, Math.floorDiv(clip.x - offsetX, chunkWidth));
+			firstRow = Math.max(firstRow, Math.floorDiv(clip.y - offsetY, chunkHeight));
+			lastColumn = Math.min(lastColumn, Math.floorDiv(clip.x + clip.width - offsetX, 
+					chunkWidth));
+			lastRow = Math.min(lastRow, Math.floorDiv(clip.y + clip.height - offsetY, 
+					chunkHeight));
+		}
+		
+		for (int chunkY = firstRow; chunkY <= lastRow; chunkY++)
+		{
+			for (int chunkX = firstColumn; chunkX <= lastColumn; chunkX++)
+			{
+				drawChunk(g2d, chunkX, chunkY, offsetX + chunkX * chunkWidth, 
+						offsetY + chunkY * chunkHeight);
+			}
+		}
+	}
+	
+	@Override
+	public int getDepth()
+	{
+		return this.depth;
+	}
+	
+	@Override
+	public void setRedrawListener(Runnable listener)
+	{
+		this.redrawListener = listener;
+	}
+	
+	@Override
+	public Rectangle2D getDrawBounds()
+	{
+		Vector3D position = this.position;
+		// The map is drawn at integer coordinates
+		return new Rectangle2D.Double(position.getXInt(), position.getYInt(), 
+				this.columns * this.tileWidth, this.rows * this.tileHeight);
+	}
+	
+	
+	// ACCESSORS	------------------------------
+	
+	/**
+	 * @return How many tiles there are horizontally
+	 */
+	public int getColumns()
+	{
+		return this.columns;
+	}
+	
+	/**
+	 * @return How many tiles there are vertically
+	 */
+	public int getRows()
+	{
+		return this.rows;
+	}
+	
+	/**
+	 * @return The position of the map's top left corner
+	 */
+	public Vector3D getPosition()
+	{
+		return this.position;
+	}
+	
+	/**
+	 * Moves the map. The cached chunk images remain valid.
+	 * @param position The new position of the map's top left corner
+	 */
+	public void setPosition(Vector3D position)
+	{
+		this.position = position;
+		requestRedraw();
+	}
+	
+	/**
+	 * Changes the depth the map is drawn at
+	 * @param depth The new drawing depth
+	 */
+	public void setDepth(int depth)
+	{
+		this.depth = depth;
+	}
+	
+	/**
+	 * @param column The column of the tile
+	 * @param row The row of the tile
+	 * @return The index of the tile in the tile set or {@link #EMPTY}
+	 */
+	public int getTile(int column, int row)
+	{
+		checkBounds(column, row);
+		return this.tiles[row * this.columns + column];
+	}
+	
+	/**
+	 * Changes a tile. The chunk containing the tile is drawn again the next time it's 
+	 * visible.
+	 * @param column The column of the tile
+	 * @param row The row of the tile
+	 * @param tile The index of the new tile in the tile set or {@link #EMPTY}
+	 */
+	public void setTile(int column, int row, int tile)
+	{
+		checkBounds(column, row);
+		
+		int index = row * this.columns + column;
+		if (this.tiles[index] == tile)
+			return;
+		
+		this.tiles[index] = tile;
+		this.chunkVersions.incrementAndGet(getChunkIndex(column / this.chunkSize, 
+				row / this.chunkSize));
+		requestRedraw();
+	}
+	
+	/**
+	 * Replaces all the tiles in the map
+	 * @param tiles The new tile indices, row by row. The array must contain a value for 
+	 * each tile in the map.
+	 */
+	public void setTiles(int[] tiles)
+	{
+		if (tiles.length != this.tiles.length)
+			throw new IllegalArgumentException("Expected " + this.tiles.length + 
+					" tiles but received " + tiles.length);
+		
+		System.arraycopy(tiles, 0, this.tiles, 0, tiles.length);
+		invalidate();
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Marks all the chunks to be drawn again. This should be done if the tile set images 
+	 * have changed.
+	 */
+	public void invalidate()
+	{
+		for (int i = 0; i < this.chunkVersions.length(); i++)
+		{
+			this.chunkVersions.incrementAndGet(i);
+		}
+		requestRedraw();
+	}
+	
+	/**
+	 * @return How many chunk images are currently kept in memory
+	 */
+	public int getCachedChunkAmount()
+	{
+		synchronized (this.cachedChunks)
+		{
+			return this.cachedChunks.size();
+		}
+	}
+	
+	/**
+	 * Releases the cached chunk images. The chunks are drawn again when they are needed.
+	 */
+	public void releaseChunkImages()
+	{
+		for (int i = 0; i < this.chunkLocks.length; i++)
+		{
+			synchronized (this.chunkLocks[i])
+			{
+				releaseChunk(i);
+			}
+		}
+	}
+	
+	private void requestRedraw()
+	{
+		Runnable listener = this.redrawListener;
+		if (listener != null)
+			listener.run();
+	}
+	
+	private void checkBounds(int column, int row)
+	{
+		if (column < 0 || row < 0 || column >= this.columns || row >= this.rows)
+			throw new IndexOutOfBoundsException("No tile at (" + column + ", " + row + ")");
+	}
+	
+	private int getChunkIndex(int chunkX, int chunkY)
+	{
+		return chunkY * this.chunkColumns + chunkX;
+	}
+	
+	private void drawChunk(Graphics2D g2d, int chunkX, int chunkY, int x, int y)
+	{
+		int index = getChunkIndex(chunkX, chunkY);
+		List<Integer> evicted;
+		
+		// Other threads drawing the same chunk wait until it's up to date and blitted
+		synchronized (this.chunkLocks[index])
+		{
+			// Draws the chunk again if it has changed since it was last drawn
+			int version = this.chunkVersions.get(index);
+			if (this.drawnVersions[index] != version)
+			{
+				this.chunkImages[index] = renderChunk(chunkX, chunkY, 
+						this.chunkImages[index]);
+				this.drawnVersions[index] = version;
+			}
+			
+			// Empty chunks don't use any memory
+			BufferedImage image = this.chunkImages[index];
+			if (image == null)
+			{
+				synchronized (this.cachedChunks)
+				{
+					this.cachedChunks.remove(index);
+				}
+				return;
+			}
+			
+			g2d.drawImage(image, x, y, null);
+			evicted = markDrawn(index);
+		}
+		
+		// The evicted chunks are released only after this chunk's lock has been released, 
+		// since holding two chunk locks at once could deadlock with another thread
+		if (evicted != null)
+		{
+			for (int evictedIndex : evicted)
+			{
+				synchronized (this.chunkLocks[evictedIndex])
+				{
+					// The chunk may have been drawn again in the meantime
+					synchronized (this.cachedChunks)
+					{
+						if (this.cachedChunks.contains(evictedIndex))
+							continue;
+					}
+					this.chunkImages[evictedIndex] = null;
+					this.drawnVersions[evictedIndex] = -1;
+				}
+			}
+		}
+	}
+	
+	// Moves the chunk to the end of the usage order and returns the chunks that no longer 
+	// fit in the cache (null if there are none)
+	private List<Integer> markDrawn(int index)
+	{
+		synchronized (this.cachedChunks)
+		{
+			this.cachedChunks.remove(index);
+			this.cachedChunks.add(index);
+			
+			if (this.cachedChunks.size() <= this.maxCachedChunks)
+				return null;
+			
+			List<Integer> evicted = new ArrayList<>();
+			Iterator<Integer> iterator = this.cachedChunks.iterator();
+			while (this.cachedChunks.size() > this.maxCachedChunks)
+			{
+				evicted.add(iterator.next());
+				iterator.remove();
+			}
+			return evicted;
+		}
+	}
+	
+	// Must be called while holding the chunk's lock
+	private void releaseChunk(int index)
+	{
+		this.chunkImages[index] = null;
+		this.drawnVersions[index] = -1;
+		synchronized (this.cachedChunks)
+		{
+			this.cachedChunks.remove(index);
+		}
+	}
+	
+	private BufferedImage renderChunk(int chunkX, int chunkY, BufferedImage previous)
+	{
+		int firstColumn = chunkX * this.chunkSize;
+		int firstRow = chunkY * this.chunkSize;
+		int lastColumn = Math.min(this.columns, firstColumn + this.chunkSize);
+		int lastRow = Math.min(this.rows, firstRow + this.chunkSize);
+		
+		// Completely empty chunks don't need an image at all
+		boolean empty = true;
+		for (int row = firstRow; row < lastRow && empty; row++)
+		{
+			for (int column = firstColumn; column < lastColumn; column++)
+			{
+				if (this.tiles[row * this.columns + column] != EMPTY)
+				{
+					empty = false;
+					break;
+				}
+			}
+		}
+		if (empty)
+			return null;
+		
+		BufferedImage image = previous;
+		if (image == null)
+			image = ImageLoader.createCompatibleImage(this.chunkSize * this.tileWidth, 
+					this.chunkSize * this.tileHeight, Transparency.TRANSLUCENT);
+		
+		Graphics2D g2d = image.createGraphics();
+		try
+		{
+			// Clears the previous contents
+			g2d.setComposite(AlphaComposite.Clear);
+			g2d.fillRect(0, 0, image.getWidth(), image.getHeight());
+			g2d.setComposite(AlphaComposite.SrcOver);
+			
+			for (int row = firstRow; row < lastRow; row++)
+			{
+				for (int column = firstColumn; column < lastColumn; column++)
+				{
+					int tile = this.tiles[row * this.columns + column];
+					if (tile < 0 || tile >= this.tileSet.length || this.tileSet[tile] == null)
+						continue;
+					
+					Sprite sprite = this.tileSet[tile];
+					int drawX = (column - firstColumn) * this.tileWidth;
+					int drawY = (row - firstRow) * this.tileHeight;
+					g2d.drawImage(sprite.getSource(), drawX, drawY, drawX + this.tileWidth, 
+							drawY + this.tileHeight, sprite.getX(), sprite.getY(), 
+							sprite.getX() + sprite.getWidth(), 
+							sprite.getY() + sprite.getHeight(), null);
+				}
+			}
+		}
+		finally
+		{
+			g2d.dispose();
+		}
+		
+		return image;
+	}
+}
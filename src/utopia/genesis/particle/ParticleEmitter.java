@@ -0,0 +1,169 @@
+package utopia.genesis.particle;
+
+import java.util.Random;
+
+import utopia.genesis.event.Actor;
+import utopia.genesis.util.HelpMath;
+import utopia.genesis.util.Vector3D;
+import utopia.inception.util.SimpleHandled;
+
+/**
+ * A particle emitter spawns particles into a particle system at a steady rate. The 
+ * particles are launched from the emitter's position to random directions inside the 
+ * emission arc.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see ParticleSystem
+ */
+public class ParticleEmitter extends SimpleHandled implements Actor
+{
+	// ATTRIBUTES	------------------------------
+	
+	private final ParticleSystem system;
+	private final Random random = new Random();
+	
+	private Vector3D position;
+	private double particlesPerSecond;
+	private double direction = 0, spread = 360;
+	private double minSpeed, maxSpeed;
+	private double minLifeTime, maxLifeTime;
+	private double particleSize = 2;
+	private int color = 0xFFFFFFFF;
+	private double emissionDebt = 0;
+	
+	
+	// CONSTRUCTOR	------------------------------
+	
+	/**
+	 * Creates a new emitter
+	 * @param system The system the particles are spawned into
+	 * @param position The position the particles are spawned at
+	 * @param particlesPerSecond How many particles are spawned each second
+	 * @param minSpeed The minimum speed of a spawned particle (game world units per 
+	 * millisecond)
+	 * @param maxSpeed The maximum speed of a spawned particle (game world units per 
+	 * millisecond)
+	 * @param minLifeTime The minimum life time of a spawned particle in milliseconds
+	 * @param maxLifeTime The maximum life time of a spawned particle in milliseconds
+	 */
+	public ParticleEmitter(ParticleSystem system, Vector3D position, double particlesPerSecond, 
+			double minSpeed, double maxSpeed, double minLifeTime, double maxLifeTime)
+	{
+		this.system = system;
+		this.position = position;
+		this.particlesPerSecond = particlesPerSecond;
+		this.minSpeed = minSpeed;
+		this.maxSpeed = Math.max(minSpeed, maxSpeed);
+		this.minLifeTime = minLifeTime;
+		this.maxLifeTime = Math.max(minLifeTime, maxLifeTime);
+	}
+	
+	
+	// IMPLEMENTED METHODS	----------------------
+	
+	@Override
+	public void act(double millis)
+	{
+		// Partial particles are carried over to the next step
+		this.emissionDebt += this.particlesPerSecond * millis / 1000;
+		int amount = (int) this.emissionDebt;
+		this.emissionDebt -= amount;
+		
+		emit(amount);
+	}
+	
+	
+	// ACCESSORS	------------------------------
+	
+	/**
+	 * @return The particle system the particles are spawned into
+	 */
+	public ParticleSystem getSystem()
+	{
+		return this.system;
+	}
+	
+	/**
+	 * @return The position the particles are spawned at
+	 */
+	public Vector3D getPosition()
+	{
+		return this.position;
+	}
+	
+	/**
+	 * Moves the emitter
+	 * @param position The new position the particles are spawned at
+	 */
+	public void setPosition(Vector3D position)
+	{
+		this.position = position;
+	}
+	
+	/**
+	 * Changes the emission rate
+	 * @param particlesPerSecond How many particles are spawned each second. 0 stops the 
+	 * continuous emission.
+	 */
+	public void setEmissionRate(double particlesPerSecond)
+	{
+		this.particlesPerSecond = Math.max(0, particlesPerSecond);
+	}
+	
+	/**
+	 * Changes the direction of the emission
+	 * @param direction The direction the particles are launched towards, in degrees
+	 * @param spread The width of the emission arc in degrees. 360 launches the particles 
+	 * to all directions.
+	 */
+	public void setDirection(double direction, double spread)
+	{
+		this.direction = direction;
+		this.spread = Math.max(0, Math.min(360, spread));
+	}
+	
+	/**
+	 * Changes the appearance of the spawned particles
+	 * @param size The width and height of a spawned particle
+	 * @param color The color of a spawned particle in ARGB format
+	 */
+	public void setParticleAppearance(double size, int color)
+	{
+		this.particleSize = size;
+		this.color = color;
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Spawns a number of particles at once
+	 * @param amount How many particles are spawned
+	 * @return How many particles were actually spawned. May be less than requested if the 
+	 * particle system became full.
+	 */
+	public int emit(int amount)
+	{
+		float x = (float) this.position.getX();
+		float y = (float) this.position.getY();
+		
+		for (int i = 0; i < amount; i++)
+		{
+			double direction = this.direction + (this.random.nextDouble() - 0.5) * this.spread;
+			double speed = randomBetween(this.minSpeed, this.maxSpeed);
+			
+			if (!this.system.spawn(x, y, (float) HelpMath.lendirX(speed, direction), 
+					(float) HelpMath.lendirY(speed, direction), 
+					(float) randomBetween(this.minLifeTime, this.maxLifeTime), 
+					(float) this.particleSize, this.color))
+				return i;
+		}
+		
+		return amount;
+	}
+	
+	private double randomBetween(double min, double max)
+	{
+		return min + this.random.nextDouble() * (max - min);
+	}
+}
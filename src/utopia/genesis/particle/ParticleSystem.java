@@ -0,0 +1,814 @@
+package utopia.genesis.particle;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import utopia.genesis.event.Actor;
+import utopia.genesis.event.Drawable;
+import utopia.genesis.event.Snapshottable;
+import utopia.genesis.image.RasterDrawable;
+import utopia.genesis.util.ParallelTasks;
+import utopia.genesis.util.SortKey;
+import utopia.genesis.util.TripleBuffer;
+import utopia.genesis.util.Vector3D;
+import utopia.inception.util.SimpleHandled;
+
+/**
+ * A particle system simulates and draws a large amount of simple particles. Instead of 
+ * being separate objects, the particles are stored in parallel primitive arrays, updated 
+ * in a single pass and drawn as a single drawable. The arrays are allocated once and dead 
+ * particles are replaced with the last living one so that no memory is allocated while 
+ * the system is running.<br>
+ * The particles should only be spawned from the step thread. If the system is also 
+ * added to a snapshot handler, the drawing thread only reads the published state. The 
+ * drawn state is picked once per frame, so the system may be drawn from multiple threads 
+ * at once.<br>
+ * By default the particles are drawn with Graphics2D, ordered by their color so that the 
+ * color only changes between batches. Large systems inside a known area can instead be 
+ * written directly into a pixel raster, which is then drawn with a single blit.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see ParticleEmitter
+ */
+public class ParticleSystem extends SimpleHandled implements Actor, Drawable, Snapshottable
+{
+	// ATTRIBUTES	------------------------------
+	
+	/**
+	 * How many particles each parallel update task handles at minimum
+	 */
+	private static final int MIN_PARALLEL_BATCH = 4096;
+	/**
+	 * How many colors are cached for drawing. Must be a power of two.
+	 */
+	private static final int COLOR_CACHE_SIZE = 256;
+	
+	private final int capacity;
+	private final float[] x, y, velocityX, velocityY, age, lifeTime, size;
+	private final int[] color;
+	private int amount = 0;
+	
+	private int depth;
+	private float accelerationX = 0, accelerationY = 0;
+	private float drag = 0;
+	private volatile ExecutorService updatePool = null;
+	private int updateThreads = 1;
+	
+	private final TripleBuffer<RenderState> snapshots = new TripleBuffer<>(
+			new RenderState(false), new RenderState(false), new RenderState(false));
+	private final Queue<RenderState> directStates = new ConcurrentLinkedQueue<>();
+	private final Color[] colorCache = new Color[COLOR_CACHE_SIZE];
+	private volatile ParticleRaster raster = null;
+	
+	
+	// CONSTRUCTOR	------------------------------
+	
+	/**
+	 * Creates a new particle system
+	 * @param capacity How many particles can be alive at the same time
+	 * @param depth How deep the particles are drawn
+	 */
+	public ParticleSystem(int capacity, int depth)
+	{
+		this.capacity = Math.max(1, capacity);
+		this.depth = depth;
+		
+		this.x = new float[this.capacity];
+		this.y = new float[this.capacity];
+		this.velocityX = new float[this.capacity];
+		this.velocityY = new float[this.capacity];
+		this.age = new float[this.capacity];
+		this.lifeTime = new float[this.capacity];
+		this.size = new float[this.capacity];
+		this.color = new int[this.capacity];
+	}
+	
+	
+	// IMPLEMENTED METHODS	----------------------
+	
+	@Override
+	public void act(double millis)
+	{
+		int amount = this.amount;
+		if (amount == 0)
+			return;
+		
+		float duration = (float) millis;
+		
+		// Large systems are updated in parallel, each task handling a separate range
+		ExecutorService pool = this.updatePool;
+		int tasks = Math.min(this.updateThreads, amount / MIN_PARALLEL_BATCH);
+		if (pool == null || tasks < 2)
+			update(0, amount, duration);
+		else
+		{
+			// Each batch is run exactly once, even if the pool is shut down meanwhile
+			int batchSize = (amount + tasks - 1) / tasks;
+			List<Runnable> updates = new ArrayList<>(tasks);
+			for (int start = 0; start < amount; start += batchSize)
+			{
+				int batchStart = start;
+				int batchEnd = Math.min(amount, start + batchSize);
+				updates.add(() -> update(batchStart, batchEnd, duration));
+			}
+			
+			// Dead particles aren't removed from an interrupted step
+			if (!ParallelTasks.runAll(pool, updates, "particle update") && 
+					Thread.currentThread().isInterrupted())
+				return;
+		}
+		
+		removeDeadParticles();
+	}
+	
+	@Override
+	public void publishSnapshot()
+	{
+		this.snapshots.getBackBuffer().copyFrom(this, this.raster == null);
+		this.snapshots.publish();
+	}
+	
+	@Override
+	public Object prepareFrame()
+	{
+		// The same state is used for both culling and drawing during the frame
+		RenderState state = acquireRenderState();
+		
+		// The raster is written once before the frame is drawn in parts
+		ParticleRaster raster = this.raster;
+		if (raster != null)
+			raster.prepare(state);
+		
+		return state;
+	}
+	
+	@Override
+	public void drawFrame(Graphics2D g2d, Object frameState)
+	{
+		RenderState state = (RenderState) frameState;
+		ParticleRaster raster = this.raster;
+		if (raster == null)
+			state.draw(g2d, this.colorCache);
+		else
+			raster.draw(g2d, state);
+	}
+	
+	@Override
+	public Rectangle2D getFrameBounds(Object frameState)
+	{
+		return ((RenderState) frameState).getBounds();
+	}
+	
+	@Override
+	public void releaseFrame(Object frameState)
+	{
+		releaseRenderState((RenderState) frameState);
+	}
+	
+	@Override
+	public void drawSelf(Graphics2D g2d)
+	{
+		Object state = prepareFrame();
+		try
+		{
+			drawFrame(g2d, state);
+		}
+		finally
+		{
+			releaseFrame(state);
+		}
+	}
+	
+	@Override
+	public int getDepth()
+	{
+		return this.depth;
+	}
+	
+	@Override
+	public Rectangle2D getDrawBounds()
+	{
+		// The bounds are only known once the state for a frame has been picked
+		return null;
+	}
+	
+	
+	// ACCESSORS	------------------------------
+	
+	/**
+	 * @return How many particles can be alive at the same time
+	 */
+	public int getCapacity()
+	{
+		return this.capacity;
+	}
+	
+	/**
+	 * @return How many particles are currently alive
+	 */
+	public int getParticleAmount()
+	{
+		return this.amount;
+	}
+	
+	/**
+	 * Changes the depth the particles are drawn at
+	 * @param depth The new drawing depth
+	 */
+	public void setDepth(int depth)
+	{
+		this.depth = depth;
+	}
+	
+	/**
+	 * Changes the acceleration applied to all particles (for example gravity)
+	 * @param acceleration The acceleration in game world units per millisecond per 
+	 * millisecond
+	 */
+	public void setAcceleration(Vector3D acceleration)
+	{
+		this.accelerationX = (float) acceleration.getX();
+		this.accelerationY = (float) acceleration.getY();
+	}
+	
+	/**
+	 * Changes how fast the particles slow down
+	 * @param drag The portion of velocity lost each millisecond [0, 1]
+	 */
+	public void setDrag(double drag)
+	{
+		this.drag = (float) Math.max(0, Math.min(1, drag));
+	}
+	
+	/**
+	 * Changes whether the particles are updated on multiple threads. Parallel updating is 
+	 * only used when there are enough particles to make it worthwhile.
+	 * @param threads How many threads are used for updating. 1 or less disables parallel 
+	 * updating.
+	 */
+	public void setParallelUpdate(int threads)
+	{
+		ExecutorService previous = this.updatePool;
+		if (threads > 1)
+		{
+			this.updateThreads = threads;
+			this.updatePool = Executors.newFixedThreadPool(threads, runnable -> 
+			{
+				Thread thread = new Thread(runnable, "Particle updater");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		else
+		{
+			this.updateThreads = 1;
+			this.updatePool = null;
+		}
+		
+		if (previous != null)
+			previous.shutdown();
+		
+		ParticleRaster raster = this.raster;
+		if (raster != null)
+			raster.setParallelRows(threads);
+	}
+	
+	/**
+	 * Changes whether the particles are written directly into a pixel raster instead of 
+	 * being drawn with Graphics2D. Rasterization is much faster for large amounts of 
+	 * particles, but only the particles inside the raster area are drawn. Each game world 
+	 * unit in the area is a single pixel in the raster.
+	 * @param area The area the particles are drawn in. Null if the particles should be 
+	 * drawn with Graphics2D.
+	 */
+	public void setRasterArea(Rectangle area)
+	{
+		ParticleRaster previous = this.raster;
+		if (area == null || area.isEmpty())
+			this.raster = null;
+		else
+		{
+			ParticleRaster raster = new ParticleRaster(area);
+			raster.setParallelRows(this.updateThreads);
+			this.raster = raster;
+		}
+		
+		if (previous != null)
+			previous.end();
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Spawns a new particle. Should be called from the step thread.
+	 * @param position The position of the particle's center
+	 * @param velocity The velocity of the particle in game world units per millisecond
+	 * @param lifeTime How long the particle lives in milliseconds
+	 * @param size The width and height of the particle
+	 * @param color The color of the particle in ARGB format. The alpha fades out 
+	 * towards the end of the particle's life.
+	 * @return Was the particle spawned. False if the system was already full.
+	 */
+	public boolean spawn(Vector3D position, Vector3D velocity, double lifeTime, double size, 
+			int color)
+	{
+		return spawn((float) position.getX(), (float) position.getY(), 
+				(float) velocity.getX(), (float) velocity.getY(), (float) lifeTime, 
+				(float) size, color);
+	}
+	
+	/**
+	 * Spawns a new particle. Should be called from the step thread.
+	 * @param x The x-coordinate of the particle's center
+	 * @param y The y-coordinate of the particle's center
+	 * @param velocityX The horizontal velocity of the particle in game world units per 
+	 * millisecond
+	 * @param velocityY The vertical velocity of the particle in game world units per 
+	 * millisecond
+	 * @param lifeTime How long the particle lives in milliseconds
+	 * @param size The width and height of the particle
+	 * @param color The color of the particle in ARGB format. The alpha fades out 
+	 * towards the end of the particle's life.
+	 * @return Was the particle spawned. False if the system was already full.
+	 */
+	public boolean spawn(float x, float y, float velocityX, float velocityY, float lifeTime, 
+			float size, int color)
+	{
+		if (this.amount >= this.capacity || lifeTime <= 0)
+			return false;
+		
+		int i = this.amount;
+		this.x[i] = x;
+		this.y[i] = y;
+		this.velocityX[i] = velocityX;
+		this.velocityY[i] = velocityY;
+		this.age[i] = 0;
+		this.lifeTime[i] = lifeTime;
+		this.size[i] = size;
+		this.color[i] = color;
+		this.amount ++;
+		
+		return true;
+	}
+	
+	/**
+	 * Removes all the particles from the system
+	 */
+	public void clear()
+	{
+		this.amount = 0;
+	}
+	
+	/**
+	 * Stops the threads used for parallel updating
+	 */
+	public void end()
+	{
+		setParallelUpdate(1);
+	}
+	
+	private static Color getCachedColor(Color[] cache, int argb)
+	{
+		// The cache is direct mapped. Colors are immutable so sharing them between 
+		// drawing threads is safe.
+		int index = (argb * 0x9E3779B9) >>> (32 - Integer.numberOfTrailingZeros(
+				COLOR_CACHE_SIZE));
+		Color color = cache[index];
+		if (color == null || color.getRGB() != argb)
+		{
+			color = new Color(argb, true);
+			cache[index] = color;
+		}
+		return color;
+	}
+	
+	private static int blend(int source, int destination)
+	{
+		// Draws a non-premultiplied color over another (source over)
+		int sourceAlpha = source >>> 24;
+		int destinationAlpha = destination >>> 24;
+		if (sourceAlpha == 255 || destinationAlpha == 0)
+			return source;
+		
+		int remainingAlpha = destinationAlpha * (255 - sourceAlpha) / 255;
+		int alpha = sourceAlpha + remainingAlpha;
+		if (alpha == 0)
+			return 0;
+		
+		int result = alpha << 24;
+		for (int shift = 0; shift < 24; shift += 8)
+		{
+			int channel = (((source >>> shift) & 0xFF) * sourceAlpha + 
+					((destination >>> shift) & 0xFF) * remainingAlpha) / alpha;
+			result |= channel << shift;
+		}
+		return result;
+	}
+	
+	private RenderState acquireRenderState()
+	{
+		// If the state is published through snapshots, only the latest complete state is 
+		// used. Otherwise reads the current state directly.
+		RenderState state = this.snapshots.acquireLatest();
+		if (state != null)
+			return state;
+		
+		state = this.directStates.poll();
+		if (state == null)
+			state = new RenderState(true);
+		state.copyFrom(this, this.raster == null);
+		return state;
+	}
+	
+	private void releaseRenderState(RenderState state)
+	{
+		if (state.isDirect())
+			this.directStates.offer(state);
+		else
+			this.snapshots.release(state);
+	}
+	
+	private void update(int start, int end, float duration)
+	{
+		float accelerationX = this.accelerationX * duration;
+		float accelerationY = this.accelerationY * duration;
+		float velocityModifier = (float) Math.pow(1 - this.drag, duration);
+		
+		float[] x = this.x;
+		float[] y = this.y;
+		float[] velocityX = this.velocityX;
+		float[] velocityY = this.velocityY;
+		float[] age = this.age;
+		
+		for (int i = start; i < end; i++)
+		{
+			float newVelocityX = (velocityX[i] + accelerationX) * velocityModifier;
+			float newVelocityY = (velocityY[i] + accelerationY) * velocityModifier;
+			velocityX[i] = newVelocityX;
+			velocityY[i] = newVelocityY;
+			x[i] += newVelocityX * duration;
+			y[i] += newVelocityY * duration;
+			age[i] += duration;
+		}
+	}
+	
+	private void removeDeadParticles()
+	{
+		// Each dead particle is replaced with the last particle
+		int amount = this.amount;
+		int i = 0;
+		while (i < amount)
+		{
+			if (this.age[i] >= this.lifeTime[i])
+			{
+				amount --;
+				if (i != amount)
+				{
+					this.x[i] = this.x[amount];
+					this.y[i] = this.y[amount];
+					this.velocityX[i] = this.velocityX[amount];
+					this.velocityY[i] = this.velocityY[amount];
+					this.age[i] = this.age[amount];
+					this.lifeTime[i] = this.lifeTime[amount];
+					this.size[i] = this.size[amount];
+					this.color[i] = this.color[amount];
+				}
+			}
+			else
+				i ++;
+		}
+		
+		this.amount = amount;
+	}
+	
+	
+	// NESTED CLASSES	--------------------------
+	
+	/**
+	 * The state needed for drawing the particles
+	 */
+	private static class RenderState
+	{
+		// ATTRIBUTES	--------------------------
+		
+		private float[] x = new float[0], y = new float[0], size = new float[0];
+		private int[] color = new int[0];
+		private long[] drawOrder = new long[0], sortBuffer = new long[0];
+		private int amount = 0;
+		// Increased whenever the state is copied, so that a reused state can be told apart
+		private int version = 0;
+		private final Rectangle2D bounds = new Rectangle2D.Double();
+		private final boolean direct;
+		
+		
+		// CONSTRUCTOR	--------------------------
+		
+		public RenderState(boolean direct)
+		{
+			this.direct = direct;
+		}
+		
+		
+		// ACCESSORS	--------------------------
+		
+		public Rectangle2D getBounds()
+		{
+			return this.bounds;
+		}
+		
+		public int getVersion()
+		{
+			return this.version;
+		}
+		
+		// Direct states are copied from the system on the drawing thread instead of 
+		// being published
+		public boolean isDirect()
+		{
+			return this.direct;
+		}
+		
+		
+		// OTHER METHODS	----------------------
+		
+		public void copyFrom(ParticleSystem system, boolean sortByColor)
+		{
+			this.version++;
+			int amount = system.amount;
+			if (this.x.length < amount)
+			{
+				this.x = new float[system.capacity];
+				this.y = new float[system.capacity];
+				this.size = new float[system.capacity];
+				this.color = new int[system.capacity];
+			}
+			
+			if (sortByColor)
+			{
+				// The particles are ordered by their color so that the drawing thread only 
+				// needs to change the color between batches. The color is stored in the high 
+				// bits of the sort key and the particle index in the low bits.
+				if (this.drawOrder.length < amount)
+				{
+					this.drawOrder = new long[system.capacity];
+					this.sortBuffer = new long[system.capacity];
+				}
+				for (int i = 0; i < amount; i++)
+				{
+					this.drawOrder[i] = ((fadedColor(system, i) & 0xFFFFFFFFL) << 32) | i;
+				}
+				SortKey.sort(this.drawOrder, this.sortBuffer, amount);
+				
+				for (int i = 0; i < amount; i++)
+				{
+					long key = this.drawOrder[i];
+					int index = (int) key;
+					this.x[i] = system.x[index];
+					this.y[i] = system.y[index];
+					this.size[i] = system.size[index];
+					this.color[i] = (int) (key >>> 32);
+				}
+			}
+			else
+			{
+				System.arraycopy(system.x, 0, this.x, 0, amount);
+				System.arraycopy(system.y, 0, this.y, 0, amount);
+				System.arraycopy(system.size, 0, this.size, 0, amount);
+				for (int i = 0; i < amount; i++)
+				{
+					this.color[i] = fadedColor(system, i);
+				}
+			}
+			this.amount = amount;
+			
+			// Calculates the drawn area
+			if (amount == 0)
+			{
+				this.bounds.setRect(0, 0, 0, 0);
+				return;
+			}
+			float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+			float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+			for (int i = 0; i < amount; i++)
+			{
+				float halfSize = this.size[i] / 2;
+				minX = Math.min(minX, this.x[i] - halfSize);
+				minY = Math.min(minY, this.y[i] - halfSize);
+				maxX = Math.max(maxX, this.x[i] + halfSize);
+				maxY = Math.max(maxY, this.y[i] + halfSize);
+			}
+			this.bounds.setRect(minX, minY, maxX - minX, maxY - minY);
+		}
+		
+		public void draw(Graphics2D g2d, Color[] colorCache)
+		{
+			// The color is only changed when it differs from the previous particle's
+			Color previousColor = g2d.getColor();
+			int currentColor = 0;
+			boolean colorSet = false;
+			Rectangle2D.Float area = new Rectangle2D.Float();
+			
+			for (int i = 0; i < this.amount; i++)
+			{
+				int color = this.color[i];
+				if ((color >>> 24) == 0)
+					continue;
+				if (!colorSet || color != currentColor)
+				{
+					g2d.setColor(getCachedColor(colorCache, color));
+					currentColor = color;
+					colorSet = true;
+				}
+				
+				float size = this.size[i];
+				area.setRect(this.x[i] - size / 2, this.y[i] - size / 2, size, size);
+				g2d.fill(area);
+			}
+			
+			g2d.setColor(previousColor);
+		}
+		
+		public void write(int[] pixels, int scanline, int originX, int originY, int minX, 
+				int minY, int maxX, int maxY)
+		{
+			for (int i = 0; i < this.amount; i++)
+			{
+				int color = this.color[i];
+				if ((color >>> 24) == 0)
+					continue;
+				
+				// Each particle covers at least a single pixel
+				float halfSize = this.size[i] / 2;
+				int left = (int) Math.floor(this.x[i] - halfSize) - originX;
+				int top = (int) Math.floor(this.y[i] - halfSize) - originY;
+				int right = Math.max(left + 1, 
+						(int) Math.floor(this.x[i] + halfSize) - originX);
+				int bottom = Math.max(top + 1, 
+						(int) Math.floor(this.y[i] + halfSize) - originY);
+				
+				left = Math.max(left, minX);
+				top = Math.max(top, minY);
+				right = Math.min(right, maxX);
+				bottom = Math.min(bottom, maxY);
+				
+				for (int pixelY = top; pixelY < bottom; pixelY++)
+				{
+					int rowStart = pixelY * scanline;
+					for (int pixelX = left; pixelX < right; pixelX++)
+					{
+						pixels[rowStart + pixelX] = blend(color, pixels[rowStart + pixelX]);
+					}
+				}
+			}
+		}
+		
+		private static int fadedColor(ParticleSystem system, int index)
+		{
+			// The particles fade out during their life time. The alpha is limited to 16 
+			// levels so that the particles form larger batches of the same color. The alpha 
+			// is rounded up so that only completely faded particles become invisible.
+			int color = system.color[index];
+			float remaining = 1 - system.age[index] / system.lifeTime[index];
+			int alpha = (int) ((color >>> 24) * Math.max(0, remaining));
+			if (alpha > 0)
+				alpha = Math.min(255, ((alpha + 15) >>> 4) * 17);
+			return (alpha << 24) | (color & 0xFFFFFF);
+		}
+	}
+	
+	/**
+	 * A raster the particles are written into when drawing large amounts of particles
+	 */
+	private static class ParticleRaster extends RasterDrawable
+	{
+		// ATTRIBUTES	--------------------------
+		
+		private final int originX, originY;
+		
+		// Multiple threads may draw the raster at once as long as they draw the same state. 
+		// The shown state is only changed while holding the write lock.
+		private final ReentrantReadWriteLock showLock = new ReentrantReadWriteLock();
+		private RenderState shownState = null;
+		private int shownVersion = 0;
+		private final Rectangle2D drawnBounds = new Rectangle2D.Double();
+		
+		
+		// CONSTRUCTOR	--------------------------
+		
+		public ParticleRaster(Rectangle area)
+		{
+			super(area.width, area.height, true, new Vector3D(area.x, area.y), 0);
+			
+			this.originX = area.x;
+			this.originY = area.y;
+		}
+		
+		
+		// IMPLEMENTED METHODS	------------------
+		
+		@Override
+		protected void writePixels(int[] pixels, int scanline, int minX, int minY, int maxX, 
+				int maxY)
+		{
+			for (int y = minY; y < maxY; y++)
+			{
+				int rowStart = y * scanline;
+				Arrays.fill(pixels, rowStart + minX, rowStart + maxX, 0);
+			}
+			
+			RenderState state = this.shownState;
+			if (state != null)
+				state.write(pixels, scanline, this.originX, this.originY, minX, minY, maxX, 
+						maxY);
+		}
+		
+		
+		// OTHER METHODS	----------------------
+		
+		// Writes the state into the raster if it isn't shown already
+		public void prepare(RenderState state)
+		{
+			lockShowing(state);
+			this.showLock.readLock().unlock();
+		}
+		
+		// Draws the raster while it shows the specified state
+		public void draw(Graphics2D g2d, RenderState state)
+		{
+			lockShowing(state);
+			try
+			{
+				drawSelf(g2d);
+			}
+			finally
+			{
+				this.showLock.readLock().unlock();
+			}
+		}
+		
+		// Acquires the read lock once the raster shows the state
+		private void lockShowing(RenderState state)
+		{
+			this.showLock.readLock().lock();
+			if (isShowing(state))
+				return;
+			this.showLock.readLock().unlock();
+			
+			this.showLock.writeLock().lock();
+			try
+			{
+				if (!isShowing(state))
+					show(state);
+				
+				// Downgrades to the read lock so that other threads drawing the same state 
+				// may continue
+				this.showLock.readLock().lock();
+			}
+			finally
+			{
+				this.showLock.writeLock().unlock();
+			}
+		}
+		
+		private boolean isShowing(RenderState state)
+		{
+			return this.shownState == state && this.shownVersion == state.getVersion();
+		}
+		
+		// Must be called while holding the write lock
+		private void show(RenderState state)
+		{
+			// Only the areas covered by the previous and the new particles are written again
+			invalidate(this.drawnBounds);
+			this.drawnBounds.setRect(state.getBounds());
+			invalidate(this.drawnBounds);
+			
+			this.shownState = state;
+			this.shownVersion = state.getVersion();
+			update();
+		}
+		
+		private void invalidate(Rectangle2D bounds)
+		{
+			if (bounds.isEmpty())
+				return;
+			
+			int left = (int) Math.floor(bounds.getMinX()) - this.originX;
+			int top = (int) Math.floor(bounds.getMinY()) - this.originY;
+			int right = (int) Math.ceil(bounds.getMaxX()) - this.originX + 1;
+			int bottom = (int) Math.ceil(bounds.getMaxY()) - this.originY + 1;
+			invalidate(left, top, right - left, bottom - top);
+		}
+	}
+}
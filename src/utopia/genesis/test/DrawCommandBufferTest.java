@@ -0,0 +1,167 @@
+package utopia.genesis.test;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.font.TextAttribute;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.text.AttributedString;
+import java.util.ArrayList;
+import java.util.List;
+
+import utopia.genesis.util.DrawCommandBuffer;
+
+/**
+ * This class tests that the commands recorded into a draw command buffer produce the same 
+ * pixels as drawing directly, also when the same buffer is replayed from multiple threads 
+ * at once. Can be run headless.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+class DrawCommandBufferTest
+{
+	// ATTRIBUTES	---------------------
+	
+	private static final int WIDTH = 300, HEIGHT = 200;
+	private static final int REPLAY_THREADS = 4, REPLAYS = 25;
+	
+	
+	// MAIN METHOD	---------------------
+	
+	public static void main(String[] args) throws InterruptedException
+	{
+		BufferedImage sprite = new BufferedImage(20, 20, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D spriteGraphics = sprite.createGraphics();
+		spriteGraphics.setColor(Color.MAGENTA);
+		spriteGraphics.fillOval(0, 0, 20, 20);
+		spriteGraphics.dispose();
+		
+		// Draws the scene directly
+		BufferedImage direct = createImage();
+		Graphics2D g2d = direct.createGraphics();
+		drawScene(g2d, sprite);
+		g2d.dispose();
+		
+		// Records the scene and replays it
+		DrawCommandBuffer buffer = new DrawCommandBuffer();
+		drawScene(buffer, sprite);
+		boolean compositeTracked = buffer.getComposite() != AlphaComposite.SrcOver;
+		System.out.println("XOR mode is visible in the composite: " + compositeTracked);
+		
+		BufferedImage replayed = replay(buffer);
+		int differentPixels = countDifferentPixels(direct, replayed);
+		System.out.println("Pixels that differ between direct drawing and replay: " + 
+				differentPixels);
+		
+		// The same buffer is replayed from multiple threads at once
+		int[] failedReplays = new int[1];
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < REPLAY_THREADS; i++)
+		{
+			Thread thread = new Thread(() -> 
+			{
+				for (int r = 0; r < REPLAYS; r++)
+				{
+					if (countDifferentPixels(direct, replay(buffer)) > 0)
+					{
+						synchronized (failedReplays)
+						{
+							failedReplays[0] ++;
+						}
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads)
+		{
+			thread.join();
+		}
+		System.out.println("Concurrent replays that differ from direct drawing: " + 
+				failedReplays[0]);
+		
+		if (compositeTracked && differentPixels == 0 && failedReplays[0] == 0)
+			System.out.println("Draw command buffer test passed");
+		else
+			System.out.println("Draw command buffer test FAILED");
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	private static void drawScene(Graphics2D g2d, BufferedImage sprite)
+	{
+		g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, 
+				RenderingHints.VALUE_ANTIALIAS_ON);
+		g2d.setColor(Color.WHITE);
+		g2d.fillRect(0, 0, WIDTH, HEIGHT);
+		
+		// Shapes with transformations and strokes
+		g2d.setColor(Color.BLUE);
+		g2d.setStroke(new BasicStroke(3));
+		g2d.drawRect(10, 10, 80, 50);
+		g2d.translate(120, 20);
+		g2d.rotate(0.3);
+		g2d.fill(new Ellipse2D.Double(0, 0, 60, 30));
+		g2d.rotate(-0.3);
+		g2d.translate(-120, -20);
+		
+		// Clipped and translucent drawing in a created context
+		Graphics2D child = (Graphics2D) g2d.create();
+		child.clipRect(200, 10, 60, 60);
+		child.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.5f));
+		child.setColor(Color.RED);
+		child.fillOval(180, 0, 100, 100);
+		child.dispose();
+		
+		// Images
+		g2d.drawImage(sprite, 20, 80, null);
+		g2d.drawImage(sprite, 50, 80, 40, 40, null);
+		
+		// Plain and attributed text
+		g2d.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 14));
+		g2d.setColor(Color.BLACK);
+		g2d.drawString("Recorded text", 110, 110);
+		AttributedString text = new AttributedString("Attributed text");
+		text.addAttribute(TextAttribute.FOREGROUND, Color.GREEN.darker(), 0, 10);
+		text.addAttribute(TextAttribute.WEIGHT, TextAttribute.WEIGHT_BOLD, 11, 15);
+		g2d.drawString(text.getIterator(), 110, 140);
+		
+		// XOR drawing is left on so that the composite can be checked
+		g2d.setXORMode(Color.WHITE);
+		g2d.fillRect(10, 150, 120, 30);
+	}
+	
+	private static BufferedImage replay(DrawCommandBuffer buffer)
+	{
+		BufferedImage image = createImage();
+		Graphics2D g2d = image.createGraphics();
+		buffer.replay(g2d);
+		g2d.dispose();
+		return image;
+	}
+	
+	private static BufferedImage createImage()
+	{
+		return new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+	}
+	
+	private static int countDifferentPixels(BufferedImage first, BufferedImage second)
+	{
+		int differentPixels = 0;
+		for (int y = 0; y < HEIGHT; y++)
+		{
+			for (int x = 0; x < WIDTH; x++)
+			{
+				if (first.getRGB(x, y) != second.getRGB(x, y))
+					differentPixels ++;
+			}
+		}
+		return differentPixels;
+	}
+}
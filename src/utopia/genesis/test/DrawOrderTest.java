@@ -0,0 +1,137 @@
+package utopia.genesis.test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import utopia.genesis.event.Drawable;
+import utopia.genesis.event.DrawableHandler;
+import utopia.genesis.util.DepthConstants;
+import utopia.genesis.video.TiledRenderer;
+import utopia.inception.util.SimpleHandled;
+
+/**
+ * This class tests that a drawable handler draws its contents in the same order whether 
+ * it is drawn directly or through the tiled renderer. Can be run headless.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+class DrawOrderTest
+{
+	// ATTRIBUTES	---------------------
+	
+	private static final int WIDTH = 400, HEIGHT = 300;
+	
+	
+	// MAIN METHOD	---------------------
+	
+	public static void main(String[] args)
+	{
+		Random random = new Random(18);
+		List<Drawable> drawOrder = new ArrayList<>();
+		
+		// Overlapping boxes are added in random depth order
+		DrawableHandler drawer = new DrawableHandler(true, DepthConstants.NORMAL, 4);
+		for (int i = 0; i < 200; i++)
+		{
+			int depth = DepthConstants.TOP + random.nextInt(DepthConstants.BOTTOM - 
+					DepthConstants.TOP);
+			drawer.add(new TestBox(random.nextInt(WIDTH), random.nextInt(HEIGHT), 
+					10 + random.nextInt(80), 10 + random.nextInt(80), 
+					new Color(random.nextInt(0xFFFFFF)), depth, drawOrder));
+		}
+		
+		// Draws the boxes directly, recording the order
+		BufferedImage direct = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g2d = direct.createGraphics();
+		drawer.drawSelf(g2d);
+		g2d.dispose();
+		
+		// The collected order must match the drawing order
+		List<Drawable> collected = new ArrayList<>();
+		drawer.collectDrawables(collected);
+		boolean orderMatches = collected.equals(drawOrder);
+		System.out.println("Collected order matches the drawing order: " + orderMatches);
+		
+		// Draws the boxes through the tiled renderer
+		BufferedImage tiled = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		g2d = tiled.createGraphics();
+		TiledRenderer renderer = new TiledRenderer(64, 4);
+		renderer.render(drawer, g2d, WIDTH, HEIGHT, 1);
+		renderer.end();
+		g2d.dispose();
+		
+		int differentPixels = 0;
+		for (int y = 0; y < HEIGHT; y++)
+		{
+			for (int x = 0; x < WIDTH; x++)
+			{
+				if (direct.getRGB(x, y) != tiled.getRGB(x, y))
+					differentPixels ++;
+			}
+		}
+		System.out.println("Pixels that differ between direct and tiled drawing: " + 
+				differentPixels);
+		
+		if (orderMatches && differentPixels == 0)
+			System.out.println("Draw order test passed");
+		else
+			System.out.println("Draw order test FAILED");
+	}
+	
+	
+	// NESTED CLASSES	-----------------
+	
+	private static class TestBox extends SimpleHandled implements Drawable
+	{
+		// ATTRIBUTES	-----------------
+		
+		private final Rectangle2D area;
+		private final Color color;
+		private final int depth;
+		private final List<Drawable> drawOrder;
+		
+		
+		// CONSTRUCTOR	-----------------
+		
+		public TestBox(int x, int y, int width, int height, Color color, int depth, 
+				List<Drawable> drawOrder)
+		{
+			this.area = new Rectangle2D.Double(x, y, width, height);
+			this.color = color;
+			this.depth = depth;
+			this.drawOrder = drawOrder;
+		}
+		
+		
+		// IMPLEMENTED METHODS	---------
+		
+		@Override
+		public void drawSelf(Graphics2D g2d)
+		{
+			synchronized (this.drawOrder)
+			{
+				this.drawOrder.add(this);
+			}
+			
+			g2d.setColor(this.color);
+			g2d.fill(this.area);
+		}
+		
+		@Override
+		public int getDepth()
+		{
+			return this.depth;
+		}
+		
+		@Override
+		public Rectangle2D getDrawBounds()
+		{
+			return this.area;
+		}
+	}
+}
@@ -70,6 +70,7 @@ class GenesisDependencyTest
 		// Creates the handler relay
 		HandlerRelay handlers = new HandlerRelay();
 		handlers.addHandler(stepHandler);
+		handlers.addHandler(stepHandler.getSnapshotHandler());
 		handlers.addHandler(panel.getDrawer());
 		handlers.addHandler(mouseHandler);
 		
@@ -50,6 +50,9 @@ class SplitScreenTest
 			handlers.add(new MousePositionDrawer());
 		}
 		
+		// All panels are repainted during the same frame
+		window.useSharedRenderScheduler(60);
+		
 		// Starts the game
 		stepHandler.start();
 	}
@@ -4,6 +4,7 @@ import java.awt.Graphics2D;
 import java.awt.geom.AffineTransform;
 
 import utopia.genesis.event.Drawable;
+import utopia.genesis.event.Snapshottable;
 import utopia.inception.handling.Handled;
 import utopia.inception.util.ConnectedHandled;
 
@@ -14,7 +15,7 @@ import utopia.inception.util.ConnectedHandled;
  * @param <T> The type of object that uses this drawer
  */
 public abstract class DependentDrawer<T extends Transformable & Handled> extends 
-		ConnectedHandled<T> implements Drawable, Transformable
+		ConnectedHandled<T> implements Drawable, Transformable, Snapshottable
 {
 	// ATTRIBUTES	------------------------------
 	
@@ -22,6 +23,8 @@ public abstract class DependentDrawer<T extends Transformable & Handled> extends
 	private int depth;
 	private float alpha = 1;
 	private Vector3D origin;
+	private TripleBuffer<DrawSnapshot> snapshots = DrawSnapshot.createTripleBuffer();
+	private volatile CombinedTransformation combinedTransformation = null;
 	
 	
 	// CONSTRUCTOR	-----------------------------
@@ -56,21 +59,47 @@ public abstract class DependentDrawer<T extends Transformable & Handled> extends
 	@Override
 	public void drawSelf(Graphics2D g2d)
 	{
-		if (getAlpha() != 1)
-			Drawable.setDrawAlpha(g2d, getAlpha());
-		
-		AffineTransform lastTransform = g2d.getTransform();
-		// Applies combined transformation
-		g2d.transform(getCombinedTransformation().toAffineTransform());
-		// Applies origin as well
-		g2d.translate(-getOrigin().getX(), -getOrigin().getY());
-		
-		drawSelfBasic(g2d);
-		
-		g2d.setTransform(lastTransform);
-		
-		if (getAlpha() != 1)
-			Drawable.setDrawAlpha(g2d, 1);
+		// If the state is published through snapshots, the latest snapshot is used. 
+		// Otherwise reads the current state directly.
+		DrawSnapshot snapshot = this.snapshots.acquireLatest();
+		try
+		{
+			draw(g2d, snapshot);
+		}
+		finally
+		{
+			if (snapshot != null)
+				this.snapshots.release(snapshot);
+		}
+	}
+	
+	@Override
+	public Object prepareFrame()
+	{
+		// The latest complete snapshot is kept for the whole frame so that every tile 
+		// draws the same state
+		return this.snapshots.acquireLatest();
+	}
+	
+	@Override
+	public void drawFrame(Graphics2D g2d, Object frameState)
+	{
+		draw(g2d, (DrawSnapshot) frameState);
+	}
+	
+	@Override
+	public void releaseFrame(Object frameState)
+	{
+		if (frameState != null)
+			this.snapshots.release((DrawSnapshot) frameState);
+	}
+	
+	@Override
+	public void publishSnapshot()
+	{
+		this.snapshots.getBackBuffer().set(getCombinedTransformation(), getOrigin(), 
+				getAlpha());
+		this.snapshots.publish();
 	}
 
 	@Override
@@ -146,11 +175,24 @@ public abstract class DependentDrawer<T extends Transformable & Handled> extends
 	// OTHER METHODS	------------
 	
 	/**
-	 * @return The object's transformation, affected by the master object's transformation
+	 * @return The object's transformation, affected by the master object's transformation. 
+	 * The combination is only recalculated when either of the transformations has changed.
 	 */
 	public Transformation getCombinedTransformation()
 	{
-		return getMaster().getTransformation().transform(getTransformation());
+		// Since transformations are immutable, a changed transformation is always a 
+		// different instance
+		Transformation masterTransformation = getMaster().getTransformation();
+		Transformation ownTransformation = getTransformation();
+		
+		CombinedTransformation combined = this.combinedTransformation;
+		if (combined == null || !combined.isBasedOn(masterTransformation, ownTransformation))
+		{
+			combined = new CombinedTransformation(masterTransformation, ownTransformation);
+			this.combinedTransformation = combined;
+		}
+		
+		return combined.getResult();
 	}
 	
 	/**
@@ -161,4 +203,75 @@ public abstract class DependentDrawer<T extends Transformable & Handled> extends
 	{
 		setTrasformation(getTransformation().plus(t));
 	}
+	
+	private void draw(Graphics2D g2d, DrawSnapshot snapshot)
+	{
+		Transformation transformation;
+		Vector3D origin;
+		float alpha;
+		if (snapshot != null)
+		{
+			transformation = snapshot.getTransformation();
+			origin = snapshot.getOrigin();
+			alpha = snapshot.getAlpha();
+		}
+		else
+		{
+			transformation = getCombinedTransformation();
+			origin = getOrigin();
+			alpha = getAlpha();
+		}
+		
+		if (alpha != 1)
+			Drawable.setDrawAlpha(g2d, alpha);
+		
+		// Applies combined transformation
+		AffineTransform lastTransform = transformation.transform(g2d);
+		// Applies origin as well
+		g2d.translate(-origin.getX(), -origin.getY());
+		
+		drawSelfBasic(g2d);
+		
+		g2d.setTransform(lastTransform);
+		
+		if (alpha != 1)
+			Drawable.setDrawAlpha(g2d, 1);
+	}
+	
+	
+	// SUBCLASSES	----------------
+	
+	// Remembers which transformations a combined transformation was created from
+	private static class CombinedTransformation
+	{
+		// ATTRIBUTES	------------
+		
+		private final Transformation masterTransformation, ownTransformation, result;
+		
+		
+		// CONSTRUCTOR	------------
+		
+		public CombinedTransformation(Transformation masterTransformation, 
+				Transformation ownTransformation)
+		{
+			this.masterTransformation = masterTransformation;
+			this.ownTransformation = ownTransformation;
+			this.result = masterTransformation.transform(ownTransformation);
+		}
+		
+		
+		// OTHER METHODS	--------
+		
+		public Transformation getResult()
+		{
+			return this.result;
+		}
+		
+		public boolean isBasedOn(Transformation masterTransformation, 
+				Transformation ownTransformation)
+		{
+			return this.masterTransformation == masterTransformation && 
+					this.ownTransformation == ownTransformation;
+		}
+	}
 }
@@ -0,0 +1,1051 @@
+package utopia.genesis.util;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Paint;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Area;
+import java.awt.geom.Line2D;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Path2D;
+import java.awt.geom.RectangularShape;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.awt.image.ImageObserver;
+import java.awt.image.RenderedImage;
+import java.awt.image.renderable.RenderableImage;
+import java.text.AttributedCharacterIterator;
+import java.text.AttributedString;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * DrawCommandBuffer is a graphics object that doesn't draw anything but records the drawing
+ * commands instead. The recorded commands can then be replayed on another graphics object,
+ * possibly on another thread and possibly multiple times. The commands are stored in
+ * primitive arrays where possible. Shapes and other mutable parameters are copied when
+ * recorded, but the contents of drawn images are not.<p>
+ *
+ * The recorded transformations and clips are relative to the state of the graphics object
+ * the commands are replayed on.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see RecordedDrawable
+ */
+public class DrawCommandBuffer extends Graphics2D
+{
+	// ATTRIBUTES	------------------------------
+	
+	private static final int SELECT = 0, CREATE = 1, DISPOSE = 2, SET_TRANSFORM = 3,
+			TRANSFORM = 4, SET_COLOR = 5, SET_PAINT = 6, SET_COMPOSITE = 7, SET_STROKE = 8,
+			SET_FONT = 9, SET_BACKGROUND = 10, SET_HINT = 11, SET_HINTS = 12,
+			ADD_HINTS = 13, SET_PAINT_MODE = 14, SET_XOR_MODE = 15, CLIP = 16, SET_CLIP = 17,
+			DRAW = 18, FILL = 19, DRAW_LINE = 20, FILL_RECT = 21, CLEAR_RECT = 22,
+			DRAW_ROUND_RECT = 23, FILL_ROUND_RECT = 24, DRAW_OVAL = 25, FILL_OVAL = 26,
+			DRAW_ARC = 27, FILL_ARC = 28, DRAW_POLYLINE = 29, DRAW_POLYGON = 30,
+			FILL_POLYGON = 31, DRAW_STRING = 32, DRAW_CHARACTERS = 33, DRAW_GLYPHS = 34,
+			DRAW_IMAGE = 35, DRAW_IMAGE_SCALED = 36, DRAW_IMAGE_REGION = 37,
+			DRAW_IMAGE_TRANSFORMED = 38, DRAW_IMAGE_FILTERED = 39, DRAW_RENDERED_IMAGE = 40,
+			DRAW_RENDERABLE_IMAGE = 41, COPY_AREA = 42;
+	
+	private static final Graphics2D MEASURER = new BufferedImage(1, 1,
+			BufferedImage.TYPE_INT_ARGB).createGraphics();
+	
+	private final Commands commands;
+	private final int contextId;
+	private boolean disposed = false;
+	
+	private AffineTransform transform;
+	private Color color, background;
+	private Paint paint;
+	private Composite composite;
+	private Stroke stroke;
+	private Font font;
+	private RenderingHints hints;
+	// The clip is stored in the device space (null = no clip)
+	private Shape clip;
+	
+	
+	// CONSTRUCTOR	------------------------------
+	
+	/**
+	 * Creates a new empty command buffer
+	 */
+	public DrawCommandBuffer()
+	{
+		this.commands = new Commands();
+		this.contextId = this.commands.nextContextId ++;
+		
+		this.transform = new AffineTransform();
+		this.color = Color.BLACK;
+		this.background = Color.WHITE;
+		this.paint = this.color;
+		this.composite = AlphaComposite.SrcOver;
+		this.stroke = new BasicStroke();
+		this.font = MEASURER.getFont();
+		this.hints = new RenderingHints(null);
+		this.clip = null;
+	}
+	
+	private DrawCommandBuffer(DrawCommandBuffer parent)
+	{
+		this.commands = parent.commands;
+		this.contextId = this.commands.nextContextId ++;
+		
+		this.transform = new AffineTransform(parent.transform);
+		this.color = parent.color;
+		this.background = parent.background;
+		this.paint = parent.paint;
+		this.composite = parent.composite;
+		this.stroke = parent.stroke;
+		this.font = parent.font;
+		this.hints = (RenderingHints) parent.hints.clone();
+		this.clip = parent.clip;
+	}
+	
+	
+	// IMPLEMENTED METHODS	----------------------
+	
+	@Override
+	public Graphics create()
+	{
+		DrawCommandBuffer child = new DrawCommandBuffer(this);
+		begin(CREATE);
+		this.commands.addValue(child.contextId);
+		return child;
+	}
+	
+	@Override
+	public void dispose()
+	{
+		// The root buffer can't be disposed since its commands are still used
+		if (!this.disposed && this.contextId != 0)
+		{
+			begin(DISPOSE);
+			this.disposed = true;
+		}
+	}
+	
+	@Override
+	public void draw(Shape s)
+	{
+		begin(DRAW);
+		this.commands.addReference(copyShape(s));
+	}
+	
+	@Override
+	public void fill(Shape s)
+	{
+		begin(FILL);
+		this.commands.addReference(copyShape(s));
+	}
+	
+	@Override
+	public boolean drawImage(Image img, AffineTransform xform, ImageObserver obs)
+	{
+		begin(DRAW_IMAGE_TRANSFORMED);
+		this.commands.addReference(img);
+		this.commands.addTransform(xform);
+		return true;
+	}
+	
+	@Override
+	public void drawImage(BufferedImage img, BufferedImageOp op, int x, int y)
+	{
+		begin(DRAW_IMAGE_FILTERED);
+		this.commands.addReference(img);
+		this.commands.addReference(op);
+		this.commands.addValues(x, y);
+	}
+	
+	@Override
+	public void drawRenderedImage(RenderedImage img, AffineTransform xform)
+	{
+		begin(DRAW_RENDERED_IMAGE);
+		this.commands.addReference(img);
+		this.commands.addTransform(xform);
+	}
+	
+	@Override
+	public void drawRenderableImage(RenderableImage img, AffineTransform xform)
+	{
+		begin(DRAW_RENDERABLE_IMAGE);
+		this.commands.addReference(img);
+		this.commands.addTransform(xform);
+	}
+	
+	@Override
+	public void drawString(String str, int x, int y)
+	{
+		drawString(str, (float) x, (float) y);
+	}
+	
+	@Override
+	public void drawString(String str, float x, float y)
+	{
+		begin(DRAW_STRING);
+		this.commands.addReference(str);
+		this.commands.addValues(x, y);
+	}
+	
+	@Override
+	public void drawString(AttributedCharacterIterator iterator, int x, int y)
+	{
+		drawString(iterator, (float) x, (float) y);
+	}
+	
+	@Override
+	public void drawString(AttributedCharacterIterator iterator, float x, float y)
+	{
+		// The text is copied to an immutable form, since the same buffer may be replayed 
+		// from multiple threads at once, each needing its own iterator
+		begin(DRAW_CHARACTERS);
+		this.commands.addReference(new AttributedString(iterator));
+		this.commands.addValues(x, y);
+	}
+	
+	@Override
+	public void drawGlyphVector(GlyphVector g, float x, float y)
+	{
+		begin(DRAW_GLYPHS);
+		this.commands.addReference(g);
+		this.commands.addValues(x, y);
+	}
+	
+	@Override
+	public boolean hit(Rectangle rect, Shape s, boolean onStroke)
+	{
+		Shape hitShape = s;
+		if (onStroke)
+			hitShape = this.stroke.createStrokedShape(hitShape);
+		return this.transform.createTransformedShape(hitShape).intersects(rect);
+	}
+	
+	@Override
+	public GraphicsConfiguration getDeviceConfiguration()
+	{
+		return MEASURER.getDeviceConfiguration();
+	}
+	
+	@Override
+	public void setComposite(Composite comp)
+	{
+		this.composite = comp;
+		begin(SET_COMPOSITE);
+		this.commands.addReference(comp);
+	}
+	
+	@Override
+	public void setPaint(Paint paint)
+	{
+		if (paint == null)
+			return;
+		
+		this.paint = paint;
+		if (paint instanceof Color)
+			this.color = (Color) paint;
+		begin(SET_PAINT);
+		this.commands.addReference(paint);
+	}
+	
+	@Override
+	public void setStroke(Stroke s)
+	{
+		this.stroke = s;
+		begin(SET_STROKE);
+		this.commands.addReference(s);
+	}
+	
+	@Override
+	public void setRenderingHint(RenderingHints.Key hintKey, Object hintValue)
+	{
+		this.hints.put(hintKey, hintValue);
+		begin(SET_HINT);
+		this.commands.addReference(hintKey);
+		this.commands.addReference(hintValue);
+	}
+	
+	@Override
+	public Object getRenderingHint(RenderingHints.Key hintKey)
+	{
+		return this.hints.get(hintKey);
+	}
+	
+	@Override
+	public void setRenderingHints(Map<?, ?> hints)
+	{
+		this.hints = new RenderingHints(null);
+		this.hints.putAll(hints);
+		begin(SET_HINTS);
+		this.commands.addReference(this.hints.clone());
+	}
+	
+	@Override
+	public void addRenderingHints(Map<?, ?> hints)
+	{
+		this.hints.putAll(hints);
+		RenderingHints added = new RenderingHints(null);
+		added.putAll(hints);
+		begin(ADD_HINTS);
+		this.commands.addReference(added);
+	}
+	
+	@Override
+	public RenderingHints getRenderingHints()
+	{
+		return (RenderingHints) this.hints.clone();
+	}
+	
+	@Override
+	public void translate(int x, int y)
+	{
+		translate((double) x, (double) y);
+	}
+	
+	@Override
+	public void translate(double tx, double ty)
+	{
+		transform(AffineTransform.getTranslateInstance(tx, ty));
+	}
+	
+	@Override
+	public void rotate(double theta)
+	{
+		transform(AffineTransform.getRotateInstance(theta));
+	}
+	
+	@Override
+	public void rotate(double theta, double x, double y)
+	{
+		transform(AffineTransform.getRotateInstance(theta, x, y));
+	}
+	
+	@Override
+	public void scale(double sx, double sy)
+	{
+		transform(AffineTransform.getScaleInstance(sx, sy));
+	}
+	
+	@Override
+	public void shear(double shx, double shy)
+	{
+		transform(AffineTransform.getShearInstance(shx, shy));
+	}
+	
+	@Override
+	public void transform(AffineTransform tx)
+	{
+		this.transform.concatenate(tx);
+		begin(TRANSFORM);
+		this.commands.addTransform(tx);
+	}
+	
+	@Override
+	public void setTransform(AffineTransform tx)
+	{
+		this.transform.setTransform(tx);
+		begin(SET_TRANSFORM);
+		this.commands.addTransform(tx);
+	}
+	
+	@Override
+	public AffineTransform getTransform()
+	{
+		return new AffineTransform(this.transform);
+	}
+	
+	@Override
+	public Paint getPaint()
+	{
+		return this.paint;
+	}
+	
+	@Override
+	public Composite getComposite()
+	{
+		return this.composite;
+	}
+	
+	@Override
+	public void setBackground(Color color)
+	{
+		this.background = color;
+		begin(SET_BACKGROUND);
+		this.commands.addReference(color);
+	}
+	
+	@Override
+	public Color getBackground()
+	{
+		return this.background;
+	}
+	
+	@Override
+	public Stroke getStroke()
+	{
+		return this.stroke;
+	}
+	
+	@Override
+	public void clip(Shape s)
+	{
+		if (s == null)
+		{
+			setClip(null);
+			return;
+		}
+		
+		Shape deviceShape = this.transform.createTransformedShape(s);
+		if (this.clip == null)
+			this.clip = deviceShape;
+		else
+		{
+			Area intersection = new Area(this.clip);
+			intersection.intersect(new Area(deviceShape));
+			this.clip = intersection;
+		}
+		
+		begin(CLIP);
+		this.commands.addReference(copyShape(s));
+	}
+	
+	@Override
+	public FontRenderContext getFontRenderContext()
+	{
+		return new FontRenderContext(getTransform(),
+				this.hints.get(RenderingHints.KEY_TEXT_ANTIALIASING),
+				this.hints.get(RenderingHints.KEY_FRACTIONALMETRICS));
+	}
+	
+	@Override
+	public Color getColor()
+	{
+		return this.color;
+	}
+	
+	@Override
+	public void setColor(Color c)
+	{
+		if (c == null)
+			return;
+		
+		this.color = c;
+		this.paint = c;
+		begin(SET_COLOR);
+		this.commands.addReference(c);
+	}
+	
+	@Override
+	public void setPaintMode()
+	{
+		this.composite = AlphaComposite.SrcOver;
+		begin(SET_PAINT_MODE);
+	}
+	
+	@Override
+	public void setXORMode(Color c1)
+	{
+		// The XOR composite is only available through a real graphics object
+		Graphics2D measurer = (Graphics2D) MEASURER.create();
+		try
+		{
+			measurer.setXORMode(c1);
+			this.composite = measurer.getComposite();
+		}
+		finally
+		{
+			measurer.dispose();
+		}
+		
+		begin(SET_XOR_MODE);
+		this.commands.addReference(c1);
+	}
+	
+	@Override
+	public Font getFont()
+	{
+		return this.font;
+	}
+	
+	@Override
+	public void setFont(Font font)
+	{
+		if (font == null)
+			return;
+		
+		this.font = font;
+		begin(SET_FONT);
+		this.commands.addReference(font);
+	}
+	
+	@Override
+	public FontMetrics getFontMetrics(Font f)
+	{
+		return MEASURER.getFontMetrics(f);
+	}
+	
+	@Override
+	public Rectangle getClipBounds()
+	{
+		Shape userClip = getClip();
+		if (userClip == null)
+			return null;
+		return userClip.getBounds();
+	}
+	
+	@Override
+	public void clipRect(int x, int y, int width, int height)
+	{
+		clip(new Rectangle(x, y, width, height));
+	}
+	
+	@Override
+	public void setClip(int x, int y, int width, int height)
+	{
+		setClip(new Rectangle(x, y, width, height));
+	}
+	
+	@Override
+	public Shape getClip()
+	{
+		if (this.clip == null)
+			return null;
+		
+		try
+		{
+			return this.transform.createInverse().createTransformedShape(this.clip);
+		}
+		catch (NoninvertibleTransformException e)
+		{
+			return null;
+		}
+	}
+	
+	@Override
+	public void setClip(Shape clip)
+	{
+		Shape copy = copyShape(clip);
+		if (copy == null)
+			this.clip = null;
+		else
+			this.clip = this.transform.createTransformedShape(copy);
+		
+		begin(SET_CLIP);
+		this.commands.addReference(copy);
+	}
+	
+	@Override
+	public void copyArea(int x, int y, int width, int height, int dx, int dy)
+	{
+		begin(COPY_AREA);
+		this.commands.addValues(x, y, width, height, dx, dy);
+	}
+	
+	@Override
+	public void drawLine(int x1, int y1, int x2, int y2)
+	{
+		begin(DRAW_LINE);
+		this.commands.addValues(x1, y1, x2, y2);
+	}
+	
+	@Override
+	public void fillRect(int x, int y, int width, int height)
+	{
+		begin(FILL_RECT);
+		this.commands.addValues(x, y, width, height);
+	}
+	
+	@Override
+	public void clearRect(int x, int y, int width, int height)
+	{
+		begin(CLEAR_RECT);
+		this.commands.addValues(x, y, width, height);
+	}
+	
+	@Override
+	public void drawRoundRect(int x, int y, int width, int height, int arcWidth,
+			int arcHeight)
+	{
+		begin(DRAW_ROUND_RECT);
+		this.commands.addValues(x, y, width, height, arcWidth, arcHeight);
+	}
+	
+	@Override
+	public void fillRoundRect(int x, int y, int width, int height, int arcWidth,
+			int arcHeight)
+	{
+		begin(FILL_ROUND_RECT);
+		this.commands.addValues(x, y, width, height, arcWidth, arcHeight);
+	}
+	
+	@Override
+	public void drawOval(int x, int y, int width, int height)
+	{
+		begin(DRAW_OVAL);
+		this.commands.addValues(x, y, width, height);
+	}
+	
+	@Override
+	public void fillOval(int x, int y, int width, int height)
+	{
+		begin(FILL_OVAL);
+		this.commands.addValues(x, y, width, height);
+	}
+	
+	@Override
+	public void drawArc(int x, int y, int width, int height, int startAngle, int arcAngle)
+	{
+		begin(DRAW_ARC);
+		this.commands.addValues(x, y, width, height, startAngle, arcAngle);
+	}
+	
+	@Override
+	public void fillArc(int x, int y, int width, int height, int startAngle, int arcAngle)
+	{
+		begin(FILL_ARC);
+		this.commands.addValues(x, y, width, height, startAngle, arcAngle);
+	}
+	
+	@Override
+	public void drawPolyline(int[] xPoints, int[] yPoints, int nPoints)
+	{
+		recordPolygon(DRAW_POLYLINE, xPoints, yPoints, nPoints);
+	}
+	
+	@Override
+	public void drawPolygon(int[] xPoints, int[] yPoints, int nPoints)
+	{
+		recordPolygon(DRAW_POLYGON, xPoints, yPoints, nPoints);
+	}
+	
+	@Override
+	public void fillPolygon(int[] xPoints, int[] yPoints, int nPoints)
+	{
+		recordPolygon(FILL_POLYGON, xPoints, yPoints, nPoints);
+	}
+	
+	@Override
+	public boolean drawImage(Image img, int x, int y, ImageObserver observer)
+	{
+		return drawImage(img, x, y, null, observer);
+	}
+	
+	@Override
+	public boolean drawImage(Image img, int x, int y, int width, int height,
+			ImageObserver observer)
+	{
+		return drawImage(img, x, y, width, height, null, observer);
+	}
+	
+	@Override
+	public boolean drawImage(Image img, int x, int y, Color bgcolor, ImageObserver observer)
+	{
+		begin(DRAW_IMAGE);
+		this.commands.addReference(img);
+		this.commands.addReference(bgcolor);
+		this.commands.addValues(x, y);
+		return true;
+	}
+	
+	@Override
+	public boolean drawImage(Image img, int x, int y, int width, int height, Color bgcolor,
+			ImageObserver observer)
+	{
+		begin(DRAW_IMAGE_SCALED);
+		this.commands.addReference(img);
+		this.commands.addReference(bgcolor);
+		this.commands.addValues(x, y, width, height);
+		return true;
+	}
+	
+	@Override
+	public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1,
+			int sx2, int sy2, ImageObserver observer)
+	{
+		return drawImage(img, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, null, observer);
+	}
+	
+	@Override
+	public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1,
+			int sx2, int sy2, Color bgcolor, ImageObserver observer)
+	{
+		begin(DRAW_IMAGE_REGION);
+		this.commands.addReference(img);
+		this.commands.addReference(bgcolor);
+		this.commands.addValues(dx1, dy1, dx2, dy2);
+		this.commands.addValues(sx1, sy1, sx2, sy2);
+		return true;
+	}
+	
+	
+	// ACCESSORS	------------------------------
+	
+	/**
+	 * @return How many commands have been recorded to this buffer
+	 */
+	public int getCommandAmount()
+	{
+		return this.commands.opCount;
+	}
+	
+	/**
+	 * @return Whether there are no recorded commands in this buffer
+	 */
+	public boolean isEmpty()
+	{
+		return getCommandAmount() == 0;
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Removes all the recorded commands from this buffer and resets the graphics state.
+	 * Graphics objects created from this buffer shouldn't be used after this.
+	 */
+	public void clear()
+	{
+		this.commands.clear();
+		this.commands.nextContextId = this.contextId + 1;
+		this.disposed = false;
+		
+		this.transform.setToIdentity();
+		this.color = Color.BLACK;
+		this.background = Color.WHITE;
+		this.paint = this.color;
+		this.composite = AlphaComposite.SrcOver;
+		this.stroke = new BasicStroke();
+		this.font = MEASURER.getFont();
+		this.hints = new RenderingHints(null);
+		this.clip = null;
+	}
+	
+	/**
+	 * Replays the recorded commands on a graphics object. The state of the provided
+	 * graphics object is not changed. This method should be called for the original buffer
+	 * and not for the graphics objects created from it.
+	 * @param g2d The graphics object that does the actual drawing
+	 */
+	public void replay(Graphics2D g2d)
+	{
+		Commands c = this.commands;
+		if (c.opCount == 0)
+			return;
+		
+		Graphics2D[] contexts = new Graphics2D[c.nextContextId];
+		Graphics2D root = (Graphics2D) g2d.create();
+		contexts[0] = root;
+		AffineTransform baseTransform = root.getTransform();
+		Shape baseClip = root.getClip();
+		
+		Graphics2D g = root;
+		int v = 0;
+		int r = 0;
+		double[] values = c.values;
+		Object[] refs = c.references;
+		
+		try
+		{
+			for (int i = 0; i < c.opCount; i++)
+			{
+				switch (c.ops[i])
+				{
+					case SELECT: g = contexts[(int) values[v++]]; break;
+					case CREATE:
+						contexts[(int) values[v++]] = (Graphics2D) g.create(); break;
+					case DISPOSE: g.dispose(); break;
+					case SET_TRANSFORM:
+						g.setTransform(baseTransform);
+						g.transform(new AffineTransform(values[v], values[v + 1],
+								values[v + 2], values[v + 3], values[v + 4], values[v + 5]));
+						v += 6;
+						break;
+					case TRANSFORM:
+						g.transform(new AffineTransform(values[v], values[v + 1],
+								values[v + 2], values[v + 3], values[v + 4], values[v + 5]));
+						v += 6;
+						break;
+					case SET_COLOR: g.setColor((Color) refs[r++]); break;
+					case SET_PAINT: g.setPaint((Paint) refs[r++]); break;
+					case SET_COMPOSITE: g.setComposite((Composite) refs[r++]); break;
+					case SET_STROKE: g.setStroke((Stroke) refs[r++]); break;
+					case SET_FONT: g.setFont((Font) refs[r++]); break;
+					case SET_BACKGROUND: g.setBackground((Color) refs[r++]); break;
+					case SET_HINT:
+						g.setRenderingHint((RenderingHints.Key) refs[r], refs[r + 1]);
+						r += 2;
+						break;
+					case SET_HINTS: g.setRenderingHints((Map<?, ?>) refs[r++]); break;
+					case ADD_HINTS: g.addRenderingHints((Map<?, ?>) refs[r++]); break;
+					case SET_PAINT_MODE: g.setPaintMode(); break;
+					case SET_XOR_MODE: g.setXORMode((Color) refs[r++]); break;
+					case CLIP: g.clip((Shape) refs[r++]); break;
+					case SET_CLIP:
+						// The clip can't extend the original clip
+						AffineTransform currentTransform = g.getTransform();
+						g.setTransform(baseTransform);
+						g.setClip(baseClip);
+						g.setTransform(currentTransform);
+						Shape clip = (Shape) refs[r++];
+						if (clip != null)
+							g.clip(clip);
+						break;
+					case DRAW: g.draw((Shape) refs[r++]); break;
+					case FILL: g.fill((Shape) refs[r++]); break;
+					case DRAW_LINE:
+						g.drawLine((int) values[v], (int) values[v + 1], (int) values[v + 2],
+								(int) values[v + 3]);
+						v += 4;
+						break;
+					case FILL_RECT:
+						g.fillRect((int) values[v], (int) values[v + 1], (int) values[v + 2],
+								(int) values[v + 3]);
+						v += 4;
+						break;
+					case CLEAR_RECT:
+						g.clearRect((int) values[v], (int) values[v + 1], (int) values[v + 2],
+								(int) values[v + 3]);
+						v += 4;
+						break;
+					case DRAW_ROUND_RECT:
+						g.drawRoundRect((int) values[v], (int) values[v + 1],
+								(int) values[v + 2], (int) values[v + 3], (int) values[v + 4],
+								(int) values[v + 5]);
+						v += 6;
+						break;
+					case FILL_ROUND_RECT:
+						g.fillRoundRect((int) values[v], (int) values[v + 1],
+								(int) values[v + 2], (int) values[v + 3], (int) values[v + 4],
+								(int) values[v + 5]);
+						v += 6;
+						break;
+					case DRAW_OVAL:
+						g.drawOval((int) values[v], (int) values[v + 1], (int) values[v + 2],
+								(int) values[v + 3]);
+						v += 4;
+						break;
+					case FILL_OVAL:
+						g.fillOval((int) values[v], (int) values[v + 1], (int) values[v + 2],
+								(int) values[v + 3]);
+						v += 4;
+						break;
+					case DRAW_ARC:
+						g.drawArc((int) values[v], (int) values[v + 1], (int) values[v + 2],
+								(int) values[v + 3], (int) values[v + 4], (int) values[v + 5]);
+						v += 6;
+						break;
+					case FILL_ARC:
+						g.fillArc((int) values[v], (int) values[v + 1], (int) values[v + 2],
+								(int) values[v + 3], (int) values[v + 4], (int) values[v + 5]);
+						v += 6;
+						break;
+					case DRAW_POLYLINE:
+					case DRAW_POLYGON:
+					case FILL_POLYGON:
+						int[] xPoints = (int[]) refs[r++];
+						int[] yPoints = (int[]) refs[r++];
+						if (c.ops[i] == DRAW_POLYLINE)
+							g.drawPolyline(xPoints, yPoints, xPoints.length);
+						else if (c.ops[i] == DRAW_POLYGON)
+							g.drawPolygon(xPoints, yPoints, xPoints.length);
+						else
+							g.fillPolygon(xPoints, yPoints, xPoints.length);
+						break;
+					case DRAW_STRING:
+						g.drawString((String) refs[r++], (float) values[v],
+								(float) values[v + 1]);
+						v += 2;
+						break;
+					case DRAW_CHARACTERS:
+						AttributedCharacterIterator iterator =
+								((AttributedString) refs[r++]).getIterator();
+						g.drawString(iterator, (float) values[v], (float) values[v + 1]);
+						v += 2;
+						break;
+					case DRAW_GLYPHS:
+						g.drawGlyphVector((GlyphVector) refs[r++], (float) values[v],
+								(float) values[v + 1]);
+						v += 2;
+						break;
+					case DRAW_IMAGE:
+						g.drawImage((Image) refs[r], (int) values[v], (int) values[v + 1],
+								(Color) refs[r + 1], null);
+						r += 2;
+						v += 2;
+						break;
+					case DRAW_IMAGE_SCALED:
+						g.drawImage((Image) refs[r], (int) values[v], (int) values[v + 1],
+								(int) values[v + 2], (int) values[v + 3], (Color) refs[r + 1],
+								null);
+						r += 2;
+						v += 4;
+						break;
+					case DRAW_IMAGE_REGION:
+						g.drawImage((Image) refs[r], (int) values[v], (int) values[v + 1],
+								(int) values[v + 2], (int) values[v + 3], (int) values[v + 4],
+								(int) values[v + 5], (int) values[v + 6], (int) values[v + 7],
+								(Color) refs[r + 1], null);
+						r += 2;
+						v += 8;
+						break;
+					case DRAW_IMAGE_TRANSFORMED:
+						g.drawImage((Image) refs[r++], new AffineTransform(values[v],
+								values[v + 1], values[v + 2], values[v + 3], values[v + 4],
+								values[v + 5]), null);
+						v += 6;
+						break;
+					case DRAW_IMAGE_FILTERED:
+						g.drawImage((BufferedImage) refs[r], (BufferedImageOp) refs[r + 1],
+								(int) values[v], (int) values[v + 1]);
+						r += 2;
+						v += 2;
+						break;
+					case DRAW_RENDERED_IMAGE:
+						g.drawRenderedImage((RenderedImage) refs[r++], new AffineTransform(
+								values[v], values[v + 1], values[v + 2], values[v + 3],
+								values[v + 4], values[v + 5]));
+						v += 6;
+						break;
+					case DRAW_RENDERABLE_IMAGE:
+						g.drawRenderableImage((RenderableImage) refs[r++], new AffineTransform(
+								values[v], values[v + 1], values[v + 2], values[v + 3],
+								values[v + 4], values[v + 5]));
+						v += 6;
+						break;
+					case COPY_AREA:
+						g.copyArea((int) values[v], (int) values[v + 1], (int) values[v + 2],
+								(int) values[v + 3], (int) values[v + 4], (int) values[v + 5]);
+						v += 6;
+						break;
+				}
+			}
+		}
+		finally
+		{
+			root.dispose();
+		}
+	}
+	
+	private void begin(int op)
+	{
+		// Context changes are recorded only when necessary
+		if (this.commands.currentContextId != this.contextId)
+		{
+			this.commands.addOp(SELECT);
+			this.commands.addValue(this.contextId);
+			this.commands.currentContextId = this.contextId;
+		}
+		
+		this.commands.addOp(op);
+	}
+	
+	private void recordPolygon(int op, int[] xPoints, int[] yPoints, int nPoints)
+	{
+		begin(op);
+		this.commands.addReference(Arrays.copyOf(xPoints, nPoints));
+		this.commands.addReference(Arrays.copyOf(yPoints, nPoints));
+	}
+	
+	private static Shape copyShape(Shape s)
+	{
+		// Shapes are often reused by the caller so they need to be copied
+		if (s == null)
+			return null;
+		else if (s instanceof RectangularShape)
+			return (Shape) ((RectangularShape) s).clone();
+		else if (s instanceof Line2D)
+			return (Shape) ((Line2D) s).clone();
+		else if (s instanceof Path2D)
+			return (Shape) ((Path2D) s).clone();
+		else
+			return new Path2D.Double(s);
+	}
+	
+	
+	// NESTED CLASSES	--------------------------
+	
+	// Commands are shared between a buffer and the graphics objects created from it
+	private static class Commands
+	{
+		// ATTRIBUTES	--------------------------
+		
+		private int[] ops = new int[64];
+		private double[] values = new double[256];
+		private Object[] references = new Object[64];
+		private int opCount = 0, valueCount = 0, referenceCount = 0;
+		private int nextContextId = 0, currentContextId = 0;
+		
+		
+		// OTHER METHODS	----------------------
+		
+		public void addOp(int op)
+		{
+			if (this.opCount == this.ops.length)
+				this.ops = Arrays.copyOf(this.ops, this.ops.length * 2);
+			this.ops[this.opCount ++] = op;
+		}
+		
+		public void addValue(double value)
+		{
+			if (this.valueCount == this.values.length)
+				this.values = Arrays.copyOf(this.values, this.values.length * 2);
+			this.values[this.valueCount ++] = value;
+		}
+		
+		public void addValues(double first, double second)
+		{
+			addValue(first);
+			addValue(second);
+		}
+		
+		public void addValues(double first, double second, double third, double fourth)
+		{
+			addValues(first, second);
+			addValues(third, fourth);
+		}
+		
+		public void addValues(double first, double second, double third, double fourth,
+				double fifth, double sixth)
+		{
+			addValues(first, second, third, fourth);
+			addValues(fifth, sixth);
+		}
+		
+		public void addTransform(AffineTransform t)
+		{
+			addValues(t.getScaleX(), t.getShearY(), t.getShearX(), t.getScaleY(),
+					t.getTranslateX(), t.getTranslateY());
+		}
+		
+		public void addReference(Object reference)
+		{
+			if (this.referenceCount == this.references.length)
+				this.references = Arrays.copyOf(this.references, this.references.length * 2);
+			this.references[this.referenceCount ++] = reference;
+		}
+		
+		public void clear()
+		{
+			// References are released so that they can be collected
+			Arrays.fill(this.references, 0, this.referenceCount, null);
+			this.opCount = 0;
+			this.valueCount = 0;
+			this.referenceCount = 0;
+			this.currentContextId = 0;
+		}
+	}
+}
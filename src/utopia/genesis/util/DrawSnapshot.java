@@ -0,0 +1,68 @@
+package utopia.genesis.util;
+
+/**
+ * A draw snapshot contains the render-relevant state of an object at the end of a step. 
+ * Snapshots are mutable so that they can be reused in triple buffers.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see TripleBuffer
+ */
+public class DrawSnapshot
+{
+	// ATTRIBUTES	------------------------------
+	
+	private Transformation transformation = Transformation.IDENTITY;
+	private Vector3D origin = Vector3D.ZERO;
+	private float alpha = 1;
+	
+	
+	// ACCESSORS	------------------------------
+	
+	/**
+	 * @return The (combined) transformation used when drawing
+	 */
+	public Transformation getTransformation()
+	{
+		return this.transformation;
+	}
+	
+	/**
+	 * @return The origin used when drawing
+	 */
+	public Vector3D getOrigin()
+	{
+		return this.origin;
+	}
+	
+	/**
+	 * @return The alpha value used when drawing [0, 1]
+	 */
+	public float getAlpha()
+	{
+		return this.alpha;
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Updates the state recorded in this snapshot
+	 * @param transformation The transformation used when drawing
+	 * @param origin The origin used when drawing
+	 * @param alpha The alpha value used when drawing [0, 1]
+	 */
+	public void set(Transformation transformation, Vector3D origin, float alpha)
+	{
+		this.transformation = transformation;
+		this.origin = origin;
+		this.alpha = alpha;
+	}
+	
+	/**
+	 * @return A triple buffer that holds three separate snapshots
+	 */
+	public static TripleBuffer<DrawSnapshot> createTripleBuffer()
+	{
+		return new TripleBuffer<>(new DrawSnapshot(), new DrawSnapshot(), new DrawSnapshot());
+	}
+}
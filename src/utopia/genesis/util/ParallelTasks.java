@@ -0,0 +1,119 @@
+package utopia.genesis.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * This class runs a set of tasks on a thread pool and waits until they have all finished. 
+ * It is used by the renderers and simulations that split their work between threads.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class ParallelTasks
+{
+	// CONSTRUCTOR	------------------------------
+	
+	private ParallelTasks()
+	{
+		// Constructor is hidden since the interface is static
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Runs the tasks on a thread pool and waits until all of them have finished. Each task 
+	 * is run exactly once. Tasks the pool rejects (because it has been shut down, for 
+	 * example) are run on the calling thread instead. If the calling thread is interrupted, 
+	 * the tasks that haven't started yet are cancelled, the method still waits for the 
+	 * running tasks to finish and the interrupt status is restored before returning.
+	 * @param pool The thread pool that runs the tasks
+	 * @param tasks The tasks that are run
+	 * @param description A description of the work, used in error messages
+	 * @return Were all of the tasks completed successfully. False if a task failed or 
+	 * was cancelled.
+	 */
+	public static boolean runAll(ExecutorService pool, List<? extends Runnable> tasks, 
+			String description)
+	{
+		boolean success = true;
+		List<Future<?>> results = new ArrayList<>(tasks.size());
+		for (Runnable task : tasks)
+		{
+			try
+			{
+				results.add(pool.submit(task));
+			}
+			catch (RejectedExecutionException e)
+			{
+				if (!runDirectly(task, description))
+					success = false;
+			}
+		}
+		
+		boolean interrupted = false;
+		for (Future<?> result : results)
+		{
+			boolean finished = false;
+			while (!finished)
+			{
+				try
+				{
+					result.get();
+					finished = true;
+				}
+				catch (InterruptedException e)
+				{
+					// Stops the tasks that haven't started yet but waits for the others 
+					// so that they don't outlive this call
+					if (!interrupted)
+					{
+						System.err.println("Interrupted during " + description);
+						interrupted = true;
+						for (Future<?> other : results)
+						{
+							other.cancel(false);
+						}
+					}
+				}
+				catch (CancellationException e)
+				{
+					success = false;
+					finished = true;
+				}
+				catch (ExecutionException e)
+				{
+					System.err.println("Failure during " + description);
+					e.getCause().printStackTrace();
+					success = false;
+					finished = true;
+				}
+			}
+		}
+		
+		if (interrupted)
+			Thread.currentThread().interrupt();
+		
+		return success;
+	}
+	
+	private static boolean runDirectly(Runnable task, String description)
+	{
+		try
+		{
+			task.run();
+			return true;
+		}
+		catch (RuntimeException e)
+		{
+			System.err.println("Failure during " + description);
+			e.printStackTrace();
+			return false;
+		}
+	}
+}
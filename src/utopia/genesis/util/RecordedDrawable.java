@@ -0,0 +1,143 @@
+package utopia.genesis.util;
+
+import java.awt.Graphics2D;
+
+import utopia.genesis.event.Drawable;
+import utopia.genesis.event.Snapshottable;
+import utopia.inception.util.SimpleHandled;
+
+/**
+ * RecordedDrawables record their drawing commands outside the drawing thread. The commands 
+ * are recorded when the object's snapshot is published (on the step thread) and only if 
+ * the object has been invalidated since the last recording. The drawing thread simply 
+ * replays the latest recorded commands. If the object isn't informed about snapshots, 
+ * it is drawn normally.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see DrawCommandBuffer
+ * @see utopia.genesis.event.StepHandler#getSnapshotHandler()
+ */
+public abstract class RecordedDrawable extends SimpleHandled implements Drawable, Snapshottable
+{
+	// ATTRIBUTES	------------------------------
+	
+	private TripleBuffer<DrawCommandBuffer> commandBuffers;
+	private volatile boolean needsRecording = true;
+	private volatile Runnable redrawListener = null;
+	
+	
+	// CONSTRUCTOR	------------------------------
+	
+	/**
+	 * Creates a new drawable. The drawing commands are recorded when the first snapshot is 
+	 * published.
+	 */
+	public RecordedDrawable()
+	{
+		this.commandBuffers = new TripleBuffer<>(new DrawCommandBuffer(), 
+				new DrawCommandBuffer(), new DrawCommandBuffer());
+	}
+	
+	
+	// ABSTRACT METHODS	--------------------------
+	
+	/**
+	 * Draws the object. The graphics object may be a command buffer that only records the 
+	 * drawing so the method shouldn't rely on any state outside the object.
+	 * @param g2d The graphics object that does the drawing
+	 */
+	protected abstract void record(Graphics2D g2d);
+	
+	
+	// IMPLEMENTED METHODS	----------------------
+	
+	@Override
+	public void drawSelf(Graphics2D g2d)
+	{
+		// Uses the latest recorded commands if there are some
+		DrawCommandBuffer commands = this.commandBuffers.acquireLatest();
+		try
+		{
+			drawFrame(g2d, commands);
+		}
+		finally
+		{
+			if (commands != null)
+				this.commandBuffers.release(commands);
+		}
+	}
+	
+	@Override
+	public Object prepareFrame()
+	{
+		// The latest commands are kept for the whole frame, during which they may be 
+		// replayed from multiple threads
+		return this.commandBuffers.acquireLatest();
+	}
+	
+	@Override
+	public void drawFrame(Graphics2D g2d, Object frameState)
+	{
+		if (frameState != null)
+			((DrawCommandBuffer) frameState).replay(g2d);
+		else
+			record(g2d);
+	}
+	
+	@Override
+	public void releaseFrame(Object frameState)
+	{
+		if (frameState != null)
+			this.commandBuffers.release((DrawCommandBuffer) frameState);
+	}
+	
+	@Override
+	public void setRedrawListener(Runnable listener)
+	{
+		this.redrawListener = listener;
+	}
+	
+	@Override
+	public void publishSnapshot()
+	{
+		// The previous commands are reused if nothing has changed
+		if (!this.needsRecording)
+			return;
+		this.needsRecording = false;
+		
+		DrawCommandBuffer buffer = this.commandBuffers.getBackBuffer();
+		buffer.clear();
+		record(buffer);
+		
+		// If the recording couldn't be published, it is made again later. Otherwise the 
+		// new commands need to be drawn.
+		if (this.commandBuffers.publish())
+			requestRedraw();
+		else
+			this.needsRecording = true;
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Informs the object that its appearance has changed and the drawing commands should 
+	 * be recorded again
+	 */
+	public void invalidate()
+	{
+		this.needsRecording = true;
+		
+		// When snapshots aren't used, the object is drawn again right away. Otherwise 
+		// the redraw is requested once the new commands have been published.
+		if (!this.commandBuffers.hasBeenPublished())
+			requestRedraw();
+	}
+	
+	private void requestRedraw()
+	{
+		Runnable listener = this.redrawListener;
+		if (listener != null)
+			listener.run();
+	}
+}
@@ -0,0 +1,117 @@
+package utopia.genesis.util;
+
+import java.util.Arrays;
+
+/**
+ * This class packs drawing order information into 64-bit sort keys and sorts them. The 
+ * keys are ordered first by depth (deeper first), then by material and finally by 
+ * insertion order. Keys are sorted with a radix sort, which doesn't need any comparisons.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class SortKey
+{
+	// ATTRIBUTES	------------------------------
+	
+	private static final int DEPTH_BITS = 20;
+	private static final int MATERIAL_BITS = 20;
+	private static final int INDEX_BITS = 24;
+	
+	private static final int DEPTH_OFFSET = 1 << (DEPTH_BITS - 1);
+	private static final long DEPTH_MASK = (1L << DEPTH_BITS) - 1;
+	private static final long MATERIAL_MASK = (1L << MATERIAL_BITS) - 1;
+	private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+	
+	/**
+	 * The largest index that can be packed into a key
+	 */
+	public static final int MAX_INDEX = (int) INDEX_MASK;
+	
+	
+	// CONSTRUCTOR	------------------------------
+	
+	private SortKey()
+	{
+		// Constructor is hidden since the interface is static
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Packs drawing order information into a single key
+	 * @param depth The drawing depth. Objects with more depth are ordered first. The depth 
+	 * is clamped to a 20-bit range.
+	 * @param materialId The material identifier. Only the lowest 20 bits are used.
+	 * @param index The insertion index [0, {@link #MAX_INDEX}]
+	 * @return A sort key that contains the information
+	 */
+	public static long pack(int depth, int materialId, int index)
+	{
+		// Larger depths get smaller keys
+		long depthKey = Math.max(0, Math.min(DEPTH_MASK, (long) DEPTH_OFFSET - 1 - depth));
+		return (depthKey << (MATERIAL_BITS + INDEX_BITS)) | 
+				((materialId & MATERIAL_MASK) << INDEX_BITS) | (index & INDEX_MASK);
+	}
+	
+	/**
+	 * @param key A sort key
+	 * @return The insertion index packed into the key
+	 */
+	public static int indexOf(long key)
+	{
+		return (int) (key & INDEX_MASK);
+	}
+	
+	/**
+	 * Sorts sort keys into ascending order (treating them as unsigned numbers)
+	 * @param keys The keys that are sorted
+	 * @param buffer A buffer used during the sort. Must be at least as long as the sorted 
+	 * area.
+	 * @param length How many keys are sorted, starting from the beginning of the array
+	 */
+	public static void sort(long[] keys, long[] buffer, int length)
+	{
+		if (length < 2)
+			return;
+		
+		long[] source = keys;
+		long[] target = buffer;
+		int[] positions = new int[256];
+		
+		// Sorts the keys byte by byte, starting from the least significant byte
+		for (int shift = 0; shift < 64; shift += 8)
+		{
+			Arrays.fill(positions, 0);
+			for (int i = 0; i < length; i++)
+			{
+				positions[(int) (source[i] >>> shift) & 0xFF] ++;
+			}
+			
+			// If all keys share the same byte, there's nothing to sort
+			if (positions[(int) (source[0] >>> shift) & 0xFF] == length)
+				continue;
+			
+			int position = 0;
+			for (int digit = 0; digit < 256; digit++)
+			{
+				int count = positions[digit];
+				positions[digit] = position;
+				position += count;
+			}
+			
+			for (int i = 0; i < length; i++)
+			{
+				long key = source[i];
+				target[positions[(int) (key >>> shift) & 0xFF] ++] = key;
+			}
+			
+			long[] swap = source;
+			source = target;
+			target = swap;
+		}
+		
+		if (source != keys)
+			System.arraycopy(source, 0, keys, 0, length);
+	}
+}
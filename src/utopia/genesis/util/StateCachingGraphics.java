@@ -0,0 +1,609 @@
+package utopia.genesis.util;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Paint;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.awt.image.ImageObserver;
+import java.awt.image.RenderedImage;
+import java.awt.image.renderable.RenderableImage;
+import java.text.AttributedCharacterIterator;
+import java.util.Map;
+
+/**
+ * This graphics object wraps another graphics object and keeps track of its state
+ * (transformation, composite, colour, paint, stroke, font and background). State changes
+ * that wouldn't change anything are not passed to the wrapped object and state queries are
+ * answered from the cached values. All drawing is done by the wrapped object.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class StateCachingGraphics extends Graphics2D
+{
+	// ATTRIBUTES	------------------------------
+	
+	private static final AlphaComposite[] ALPHA_COMPOSITES = new AlphaComposite[256];
+	
+	private Graphics2D g2d;
+	private AffineTransform transform;
+	private Composite composite;
+	private Color color, background;
+	private Paint paint;
+	private Stroke stroke;
+	private Font font;
+	
+	
+	// CONSTRUCTOR	------------------------------
+	
+	/**
+	 * Wraps a graphics object. The state of the graphics object should only be modified
+	 * through the wrapper afterwards.
+	 * @param g2d The graphics object that does the actual drawing
+	 */
+	public StateCachingGraphics(Graphics2D g2d)
+	{
+		this.g2d = g2d;
+		this.transform = g2d.getTransform();
+		this.composite = g2d.getComposite();
+		this.color = g2d.getColor();
+		this.background = g2d.getBackground();
+		this.paint = g2d.getPaint();
+		this.stroke = g2d.getStroke();
+		this.font = g2d.getFont();
+	}
+	
+	
+	// IMPLEMENTED METHODS	----------------------
+	
+	@Override
+	public Graphics create()
+	{
+		return new StateCachingGraphics((Graphics2D) this.g2d.create());
+	}
+	
+	@Override
+	public void dispose()
+	{
+		this.g2d.dispose();
+	}
+	
+	@Override
+	public AffineTransform getTransform()
+	{
+		return new AffineTransform(this.transform);
+	}
+	
+	@Override
+	public void setTransform(AffineTransform tx)
+	{
+		if (!this.transform.equals(tx))
+		{
+			this.transform.setTransform(tx);
+			this.g2d.setTransform(tx);
+		}
+	}
+	
+	@Override
+	public void transform(AffineTransform tx)
+	{
+		if (!tx.isIdentity())
+		{
+			this.transform.concatenate(tx);
+			this.g2d.transform(tx);
+		}
+	}
+	
+	@Override
+	public void translate(int x, int y)
+	{
+		translate((double) x, (double) y);
+	}
+	
+	@Override
+	public void translate(double tx, double ty)
+	{
+		if (tx != 0 || ty != 0)
+		{
+			this.transform.translate(tx, ty);
+			this.g2d.translate(tx, ty);
+		}
+	}
+	
+	@Override
+	public void rotate(double theta)
+	{
+		if (theta != 0)
+		{
+			this.transform.rotate(theta);
+			this.g2d.rotate(theta);
+		}
+	}
+	
+	@Override
+	public void rotate(double theta, double x, double y)
+	{
+		if (theta != 0)
+		{
+			this.transform.rotate(theta, x, y);
+			this.g2d.rotate(theta, x, y);
+		}
+	}
+	
+	@Override
+	public void scale(double sx, double sy)
+	{
+		if (sx != 1 || sy != 1)
+		{
+			this.transform.scale(sx, sy);
+			this.g2d.scale(sx, sy);
+		}
+	}
+	
+	@Override
+	public void shear(double shx, double shy)
+	{
+		if (shx != 0 || shy != 0)
+		{
+			this.transform.shear(shx, shy);
+			this.g2d.shear(shx, shy);
+		}
+	}
+	
+	@Override
+	public Composite getComposite()
+	{
+		return this.composite;
+	}
+	
+	@Override
+	public void setComposite(Composite comp)
+	{
+		if (comp != null && comp != this.composite && !comp.equals(this.composite))
+		{
+			this.composite = comp;
+			this.g2d.setComposite(comp);
+		}
+	}
+	
+	@Override
+	public Color getColor()
+	{
+		return this.color;
+	}
+	
+	@Override
+	public void setColor(Color c)
+	{
+		if (c != null && !c.equals(this.paint))
+		{
+			this.color = c;
+			this.paint = c;
+			this.g2d.setColor(c);
+		}
+	}
+	
+	@Override
+	public Paint getPaint()
+	{
+		return this.paint;
+	}
+	
+	@Override
+	public void setPaint(Paint paint)
+	{
+		if (paint instanceof Color)
+			setColor((Color) paint);
+		else if (paint != null && paint != this.paint)
+		{
+			this.paint = paint;
+			this.g2d.setPaint(paint);
+		}
+	}
+	
+	@Override
+	public Color getBackground()
+	{
+		return this.background;
+	}
+	
+	@Override
+	public void setBackground(Color color)
+	{
+		if (color != this.background)
+		{
+			this.background = color;
+			this.g2d.setBackground(color);
+		}
+	}
+	
+	@Override
+	public Stroke getStroke()
+	{
+		return this.stroke;
+	}
+	
+	@Override
+	public void setStroke(Stroke s)
+	{
+		if (s != null && s != this.stroke && !s.equals(this.stroke))
+		{
+			this.stroke = s;
+			this.g2d.setStroke(s);
+		}
+	}
+	
+	@Override
+	public Font getFont()
+	{
+		return this.font;
+	}
+	
+	@Override
+	public void setFont(Font font)
+	{
+		if (font != null && font != this.font && !font.equals(this.font))
+		{
+			this.font = font;
+			this.g2d.setFont(font);
+		}
+	}
+	
+	@Override
+	public void setPaintMode()
+	{
+		this.g2d.setPaintMode();
+		this.composite = this.g2d.getComposite();
+	}
+	
+	@Override
+	public void setXORMode(Color c1)
+	{
+		this.g2d.setXORMode(c1);
+		this.composite = this.g2d.getComposite();
+	}
+	
+	@Override
+	public void setRenderingHint(RenderingHints.Key hintKey, Object hintValue)
+	{
+		if (hintValue == null || !hintValue.equals(this.g2d.getRenderingHint(hintKey)))
+			this.g2d.setRenderingHint(hintKey, hintValue);
+	}
+	
+	@Override
+	public Object getRenderingHint(RenderingHints.Key hintKey)
+	{
+		return this.g2d.getRenderingHint(hintKey);
+	}
+	
+	@Override
+	public void setRenderingHints(Map<?, ?> hints)
+	{
+		this.g2d.setRenderingHints(hints);
+	}
+	
+	@Override
+	public void addRenderingHints(Map<?, ?> hints)
+	{
+		this.g2d.addRenderingHints(hints);
+	}
+	
+	@Override
+	public RenderingHints getRenderingHints()
+	{
+		return this.g2d.getRenderingHints();
+	}
+	
+	@Override
+	public void draw(Shape s)
+	{
+		this.g2d.draw(s);
+	}
+	
+	@Override
+	public void fill(Shape s)
+	{
+		this.g2d.fill(s);
+	}
+	
+	@Override
+	public boolean drawImage(Image img, AffineTransform xform, ImageObserver obs)
+	{
+		return this.g2d.drawImage(img, xform, obs);
+	}
+	
+	@Override
+	public void drawImage(BufferedImage img, BufferedImageOp op, int x, int y)
+	{
+		this.g2d.drawImage(img, op, x, y);
+	}
+	
+	@Override
+	public void drawRenderedImage(RenderedImage img, AffineTransform xform)
+	{
+		this.g2d.drawRenderedImage(img, xform);
+	}
+	
+	@Override
+	public void drawRenderableImage(RenderableImage img, AffineTransform xform)
+	{
+		this.g2d.drawRenderableImage(img, xform);
+	}
+	
+	@Override
+	public void drawString(String str, int x, int y)
+	{
+		this.g2d.drawString(str, x, y);
+	}
+	
+	@Override
+	public void drawString(String str, float x, float y)
+	{
+		this.g2d.drawString(str, x, y);
+	}
+	
+	@Override
+	public void drawString(AttributedCharacterIterator iterator, int x, int y)
+	{
+		this.g2d.drawString(iterator, x, y);
+	}
+	
+	@Override
+	public void drawString(AttributedCharacterIterator iterator, float x, float y)
+	{
+		this.g2d.drawString(iterator, x, y);
+	}
+	
+	@Override
+	public void drawGlyphVector(GlyphVector g, float x, float y)
+	{
+		this.g2d.drawGlyphVector(g, x, y);
+	}
+	
+	@Override
+	public boolean hit(Rectangle rect, Shape s, boolean onStroke)
+	{
+		return this.g2d.hit(rect, s, onStroke);
+	}
+	
+	@Override
+	public GraphicsConfiguration getDeviceConfiguration()
+	{
+		return this.g2d.getDeviceConfiguration();
+	}
+	
+	@Override
+	public void clip(Shape s)
+	{
+		this.g2d.clip(s);
+	}
+	
+	@Override
+	public FontRenderContext getFontRenderContext()
+	{
+		return this.g2d.getFontRenderContext();
+	}
+	
+	@Override
+	public FontMetrics getFontMetrics(Font f)
+	{
+		return this.g2d.getFontMetrics(f);
+	}
+	
+	@Override
+	public Rectangle getClipBounds()
+	{
+		return this.g2d.getClipBounds();
+	}
+	
+	@Override
+	public void clipRect(int x, int y, int width, int height)
+	{
+		this.g2d.clipRect(x, y, width, height);
+	}
+	
+	@Override
+	public void setClip(int x, int y, int width, int height)
+	{
+		this.g2d.setClip(x, y, width, height);
+	}
+	
+	@Override
+	public Shape getClip()
+	{
+		return this.g2d.getClip();
+	}
+	
+	@Override
+	public void setClip(Shape clip)
+	{
+		this.g2d.setClip(clip);
+	}
+	
+	@Override
+	public void copyArea(int x, int y, int width, int height, int dx, int dy)
+	{
+		this.g2d.copyArea(x, y, width, height, dx, dy);
+	}
+	
+	@Override
+	public void drawLine(int x1, int y1, int x2, int y2)
+	{
+		this.g2d.drawLine(x1, y1, x2, y2);
+	}
+	
+	@Override
+	public void fillRect(int x, int y, int width, int height)
+	{
+		this.g2d.fillRect(x, y, width, height);
+	}
+	
+	@Override
+	public void clearRect(int x, int y, int width, int height)
+	{
+		this.g2d.clearRect(x, y, width, height);
+	}
+	
+	@Override
+	public void drawRoundRect(int x, int y, int width, int height, int arcWidth,
+			int arcHeight)
+	{
+		this.g2d.drawRoundRect(x, y, width, height, arcWidth, arcHeight);
+	}
+	
+	@Override
+	public void fillRoundRect(int x, int y, int width, int height, int arcWidth,
+			int arcHeight)
+	{
+		this.g2d.fillRoundRect(x, y, width, height, arcWidth, arcHeight);
+	}
+	
+	@Override
+	public void drawOval(int x, int y, int width, int height)
+	{
+		this.g2d.drawOval(x, y, width, height);
+	}
+	
+	@Override
+	public void fillOval(int x, int y, int width, int height)
+	{
+		this.g2d.fillOval(x, y, width, height);
+	}
+	
+	@Override
+	public void drawArc(int x, int y, int width, int height, int startAngle, int arcAngle)
+	{
+		this.g2d.drawArc(x, y, width, height, startAngle, arcAngle);
+	}
+	
+	@Override
+	public void fillArc(int x, int y, int width, int height, int startAngle, int arcAngle)
+	{
+		this.g2d.fillArc(x, y, width, height, startAngle, arcAngle);
+	}
+	
+	@Override
+	public void drawPolyline(int[] xPoints, int[] yPoints, int nPoints)
+	{
+		this.g2d.drawPolyline(xPoints, yPoints, nPoints);
+	}
+	
+	@Override
+	public void drawPolygon(int[] xPoints, int[] yPoints, int nPoints)
+	{
+		this.g2d.drawPolygon(xPoints, yPoints, nPoints);
+	}
+	
+	@Override
+	public void fillPolygon(int[] xPoints, int[] yPoints, int nPoints)
+	{
+		this.g2d.fillPolygon(xPoints, yPoints, nPoints);
+	}
+	
+	@Override
+	public boolean drawImage(Image img, int x, int y, ImageObserver observer)
+	{
+		return this.g2d.drawImage(img, x, y, observer);
+	}
+	
+	@Override
+	public boolean drawImage(Image img, int x, int y, int width, int height,
+			ImageObserver observer)
+	{
+		return this.g2d.drawImage(img, x, y, width, height, observer);
+	}
+	
+	@Override
+	public boolean drawImage(Image img, int x, int y, Color bgcolor, ImageObserver observer)
+	{
+		return this.g2d.drawImage(img, x, y, bgcolor, observer);
+	}
+	
+	@Override
+	public boolean drawImage(Image img, int x, int y, int width, int height, Color bgcolor,
+			ImageObserver observer)
+	{
+		return this.g2d.drawImage(img, x, y, width, height, bgcolor, observer);
+	}
+	
+	@Override
+	public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1,
+			int sx2, int sy2, ImageObserver observer)
+	{
+		return this.g2d.drawImage(img, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, observer);
+	}
+	
+	@Override
+	public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1,
+			int sx2, int sy2, Color bgcolor, ImageObserver observer)
+	{
+		return this.g2d.drawImage(img, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, bgcolor,
+				observer);
+	}
+	
+	
+	// ACCESSORS	------------------------------
+	
+	/**
+	 * @return The graphics object wrapped by this object
+	 */
+	public Graphics2D getWrapped()
+	{
+		return this.g2d;
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Finds a source over composite with the provided alpha value. The composites are
+	 * cached so that a new instance isn't created each time.
+	 * @param alpha The alpha value of the composite [0, 1]
+	 * @return A composite with the provided alpha value (rounded to 1/255 precision)
+	 */
+	public static AlphaComposite getAlphaComposite(float alpha)
+	{
+		int index = Math.round(alpha * 255);
+		if (index < 0)
+			index = 0;
+		else if (index > 255)
+			index = 255;
+		
+		// Benign race: at worst the same composite is created twice
+		AlphaComposite composite = ALPHA_COMPOSITES[index];
+		if (composite == null)
+		{
+			composite = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, index / 255f);
+			ALPHA_COMPOSITES[index] = composite;
+		}
+		
+		return composite;
+	}
+	
+	/**
+	 * Wraps a graphics object into a state caching graphics object, unless it already is one
+	 * @param g2d A graphics object
+	 * @return A state caching graphics object
+	 */
+	public static StateCachingGraphics wrap(Graphics2D g2d)
+	{
+		if (g2d instanceof StateCachingGraphics)
+			return (StateCachingGraphics) g2d;
+		else
+			return new StateCachingGraphics(g2d);
+	}
+}
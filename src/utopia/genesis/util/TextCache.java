@@ -0,0 +1,161 @@
+package utopia.genesis.util;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A text cache keeps the glyph layouts of recently drawn strings so that the same text 
+ * doesn't need to be shaped and laid out again on every frame. The layouts depend on the 
+ * font and the font render context (which contains the drawing scaling). The least 
+ * recently used layouts are removed when the cache is full.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see utopia.genesis.video.GamePanel#getTextCache()
+ */
+public class TextCache
+{
+	// ATTRIBUTES	------------------------------
+	
+	private final int capacity;
+	private final Map<Key, GlyphVector> glyphs;
+	
+	
+	// CONSTRUCTOR	------------------------------
+	
+	/**
+	 * Creates a new cache
+	 * @param capacity How many text layouts are kept in the cache at maximum
+	 */
+	public TextCache(int capacity)
+	{
+		this.capacity = Math.max(1, capacity);
+		this.glyphs = new LinkedHashMap<Key, GlyphVector>(16, 0.75f, true)
+		{
+			private static final long serialVersionUID = 3624917650823457829L;
+			
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, GlyphVector> eldest)
+			{
+				return size() > TextCache.this.capacity;
+			}
+		};
+	}
+	
+	
+	// ACCESSORS	------------------------------
+	
+	/**
+	 * @return How many text layouts are kept in the cache at maximum
+	 */
+	public int getCapacity()
+	{
+		return this.capacity;
+	}
+	
+	/**
+	 * @return How many text layouts are currently in the cache
+	 */
+	public synchronized int size()
+	{
+		return this.glyphs.size();
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Finds the glyph layout of a text, creating it if necessary. The returned glyph 
+	 * vector is shared and must not be modified.
+	 * @param text The text
+	 * @param font The font used for the text
+	 * @param context The font render context used when drawing the text
+	 * @return The glyph layout of the text
+	 */
+	public synchronized GlyphVector getGlyphs(String text, Font font, FontRenderContext context)
+	{
+		Key key = new Key(text, font, context);
+		GlyphVector glyphs = this.glyphs.get(key);
+		if (glyphs == null)
+		{
+			glyphs = font.createGlyphVector(context, text);
+			this.glyphs.put(key, glyphs);
+		}
+		
+		return glyphs;
+	}
+	
+	/**
+	 * Draws a text using the graphics object's current font, reusing the cached layout if 
+	 * possible. This can be used instead of {@link Graphics2D#drawString(String, float, float)}.
+	 * @param g2d The graphics object that draws the text
+	 * @param text The drawn text
+	 * @param x The x-coordinate of the text's baseline start
+	 * @param y The y-coordinate of the text's baseline start
+	 */
+	public void drawString(Graphics2D g2d, String text, float x, float y)
+	{
+		if (text.isEmpty())
+			return;
+		g2d.drawGlyphVector(getGlyphs(text, g2d.getFont(), g2d.getFontRenderContext()), x, y);
+	}
+	
+	/**
+	 * Removes all the layouts from the cache. This should be done when the drawing scaling 
+	 * changes, since the previous layouts won't be used anymore.
+	 */
+	public synchronized void clear()
+	{
+		this.glyphs.clear();
+	}
+	
+	
+	// NESTED CLASSES	--------------------------
+	
+	private static class Key
+	{
+		// ATTRIBUTES	--------------------------
+		
+		private final String text;
+		private final Font font;
+		private final FontRenderContext context;
+		private final int hashCode;
+		
+		
+		// CONSTRUCTOR	--------------------------
+		
+		public Key(String text, Font font, FontRenderContext context)
+		{
+			this.text = text;
+			this.font = font;
+			this.context = context;
+			this.hashCode = 31 * (31 * text.hashCode() + font.hashCode()) + 
+					context.hashCode();
+		}
+		
+		
+		// IMPLEMENTED METHODS	------------------
+		
+		@Override
+		public int hashCode()
+		{
+			return this.hashCode;
+		}
+		
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			
+			Key other = (Key) obj;
+			return this.hashCode == other.hashCode && this.text.equals(other.text) && 
+					this.font.equals(other.font) && this.context.equals(other.context);
+		}
+	}
+}
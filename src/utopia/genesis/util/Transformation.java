@@ -3,6 +3,7 @@ package utopia.genesis.util;
 import java.awt.Graphics2D;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Point2D;
 
 import utopia.genesis.util.HelpMath;
 import utopia.genesis.util.Line;
@@ -25,6 +26,8 @@ public final class Transformation
 	public static final Transformation IDENTITY = new Transformation();
 	private Vector3D position, scaling, shear;
 	private double angle;
+	// The matrix forms are calculated when first needed. They are never modified after that.
+	private volatile AffineTransform affineTransform = null, inverseAffineTransform = null;
 	
 	
 	// CONSTRUCTOR	-----------------------------------
@@ -70,6 +73,8 @@ public final class Transformation
 	 */
 	public Transformation(Transformation other)
 	{
+		// The cached matrices are not copied since the copy may still be modified 
+		// before it is returned
 		this.position = other.position;
 		this.scaling = other.scaling;
 		this.shear = other.shear;
@@ -131,7 +136,7 @@ public final class Transformation
 	public AffineTransform transform(Graphics2D g2d)
 	{
 		AffineTransform lastTransform = g2d.getTransform();
-		g2d.transform(this.toAffineTransform());
+		g2d.transform(getAffineTransform());
 		return lastTransform;
 	}
 	
@@ -143,7 +148,36 @@ public final class Transformation
 	 */
 	public Vector3D transform(Vector3D relativeCoordinates)
 	{
-		return new Vector3D(this.toAffineTransform().transform(relativeCoordinates.toPoint(), null));
+		return new Vector3D(getAffineTransform().transform(relativeCoordinates.toPoint(), null));
+	}
+	
+	/**
+	 * Transforms a point in the transformation's relative coordinate system into a point 
+	 * in the absolute world coordinate system without creating any new objects.
+	 * @param relativePoint The point in the object space (relative)
+	 * @param target The point the result is stored in. May be the same as the source point.
+	 * @return The target point
+	 */
+	public Point2D transform(Point2D relativePoint, Point2D target)
+	{
+		return getAffineTransform().transform(relativePoint, target);
+	}
+	
+	/**
+	 * Transforms multiple points in the transformation's relative coordinate system into 
+	 * points in the absolute world coordinate system without creating any new objects.
+	 * @param relativeCoordinates The coordinates of the relative points in x, y order
+	 * @param relativeOffset The index of the first relative coordinate
+	 * @param target The array the absolute coordinates are stored to. May be the same as 
+	 * the source array.
+	 * @param targetOffset The index of the first absolute coordinate
+	 * @param pointAmount How many points are transformed
+	 */
+	public void transform(double[] relativeCoordinates, int relativeOffset, double[] target, 
+			int targetOffset, int pointAmount)
+	{
+		getAffineTransform().transform(relativeCoordinates, relativeOffset, target, 
+				targetOffset, pointAmount);
 	}
 	
 	/**
@@ -165,31 +199,20 @@ public final class Transformation
 	 */
 	public Vector3D inverseTransform(Vector3D absoluteCoordinates)
 	{
-		AffineTransform transform = this.toAffineTransform();
-		AffineTransform inverse = null;
-		
-		try
-		{	
-			if (transform.getDeterminant() != 0)
-			{
-				inverse = new AffineTransform(transform);
-				inverse.invert();
-			}
-			else
-			{
-				// In the case the current transformation can't be inverted, 
-				// inverts the translations (seems to be enough)
-				inverse = new AffineTransform();
-				inverse.translate(-getPosition().getX(), -getPosition().getY());
-			}
-		}
-		catch (NoninvertibleTransformException exception)
-		{
-			System.err.println("Failed to inverse transform a position");
-			exception.printStackTrace();
-		}
-		
-		return new Vector3D(inverse.transform(absoluteCoordinates.toPoint(), null));
+		return new Vector3D(getInverseAffineTransform().transform(
+				absoluteCoordinates.toPoint(), null));
+	}
+	
+	/**
+	 * Transforms a point in the absolute world coordinate system into a point in the 
+	 * transformation's relative coordinate system without creating any new objects.
+	 * @param absolutePoint The point in the world space (absolute)
+	 * @param target The point the result is stored in. May be the same as the source point.
+	 * @return The target point
+	 */
+	public Point2D inverseTransform(Point2D absolutePoint, Point2D target)
+	{
+		return getInverseAffineTransform().transform(absolutePoint, target);
 	}
 	
 	/**
@@ -380,16 +403,87 @@ public final class Transformation
 	 */
 	public AffineTransform toAffineTransform()
 	{
-		AffineTransform t = new AffineTransform();
-		
-		t.translate(getPosition().getX(), getPosition().getY());
-		t.rotate(Math.toRadians((360 - getAngle())));
-		t.scale(getScaling().getX(), getScaling().getY());
-		t.shear(getShear().getX(), getShear().getY());
+		return new AffineTransform(getAffineTransform());
+	}
+	
+	/**
+	 * Concatenates this transformation to the given affine transform, so that this 
+	 * transformation is applied first. Unlike {@link #toAffineTransform()}, this doesn't 
+	 * create any new objects.
+	 * @param target The affine transform that is modified
+	 */
+	public void concatenateTo(AffineTransform target)
+	{
+		target.concatenate(getAffineTransform());
+	}
+	
+	/**
+	 * Writes the matrix form of this transformation to the given array
+	 * @param flatMatrix The array the 6 matrix values are written to, in the same order as 
+	 * in {@link AffineTransform#getMatrix(double[])}
+	 */
+	public void getMatrix(double[] flatMatrix)
+	{
+		getAffineTransform().getMatrix(flatMatrix);
+	}
+	
+	// The returned transform must not be modified
+	private AffineTransform getAffineTransform()
+	{
+		AffineTransform t = this.affineTransform;
+		if (t == null)
+		{
+			t = new AffineTransform();
+			
+			t.translate(getPosition().getX(), getPosition().getY());
+			t.rotate(Math.toRadians((360 - getAngle())));
+			t.scale(getScaling().getX(), getScaling().getY());
+			t.shear(getShear().getX(), getShear().getY());
+			
+			this.affineTransform = t;
+		}
 		
 		return t;
 	}
 	
+	// The returned transform must not be modified
+	private AffineTransform getInverseAffineTransform()
+	{
+		AffineTransform inverse = this.inverseAffineTransform;
+		if (inverse == null)
+		{
+			AffineTransform transform = getAffineTransform();
+			
+			try
+			{	
+				if (transform.getDeterminant() != 0)
+				{
+					inverse = new AffineTransform(transform);
+					inverse.invert();
+				}
+				else
+				{
+					// In the case the current transformation can't be inverted, 
+					// inverts the translations (seems to be enough)
+					inverse = new AffineTransform();
+					inverse.translate(-getPosition().getX(), -getPosition().getY());
+				}
+			}
+			catch (NoninvertibleTransformException exception)
+			{
+				System.err.println("Failed to inverse transform a position");
+				exception.printStackTrace();
+				// Falls back to the inverted translation
+				inverse = new AffineTransform();
+				inverse.translate(-getPosition().getX(), -getPosition().getY());
+			}
+			
+			this.inverseAffineTransform = inverse;
+		}
+		
+		return inverse;
+	}
+	
 	private void initialize()
 	{
 		this.position = Vector3D.ZERO;
@@ -0,0 +1,126 @@
+package utopia.genesis.util;
+
+/**
+ * A triple buffer allows a single writer thread to publish new versions of some data while 
+ * readers draw the latest complete version. The writer always writes to its own back 
+ * buffer, which then becomes the latest version when it is published.<br>
+ * Readers acquire the latest version and release it once they're done with it. An acquired 
+ * buffer is never given to the writer, so any number of readers (for example multiple 
+ * panels or an offscreen renderer) may read the data at the same time without disturbing 
+ * each other. If every other buffer is still in use when the writer publishes, the new 
+ * version is skipped and the writer keeps its back buffer.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @param <T> The type of data stored in the buffers
+ */
+public class TripleBuffer<T>
+{
+	// ATTRIBUTES	------------------------------
+	
+	private final Object[] buffers;
+	// How many readers are currently using each buffer
+	private final int[] readers = new int[3];
+	private int backIndex, latestIndex;
+	private volatile boolean published = false;
+	
+	
+	// CONSTRUCTOR	------------------------------
+	
+	/**
+	 * Creates a new triple buffer. The three buffers must be separate instances.
+	 * @param first The first buffer instance. Used as the writer's back buffer initially.
+	 * @param second The second buffer instance
+	 * @param third The third buffer instance
+	 */
+	public TripleBuffer(T first, T second, T third)
+	{
+		this.buffers = new Object[] {first, second, third};
+		this.backIndex = 0;
+		this.latestIndex = 2;
+	}
+	
+	
+	// ACCESSORS	------------------------------
+	
+	/**
+	 * @return The buffer the writer should write to. Should only be called from the writer 
+	 * thread.
+	 */
+	@SuppressWarnings("unchecked")
+	public T getBackBuffer()
+	{
+		return (T) this.buffers[this.backIndex];
+	}
+	
+	/**
+	 * @return Whether any data has been published through this buffer yet
+	 */
+	public boolean hasBeenPublished()
+	{
+		return this.published;
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Publishes the contents of the back buffer so that the readers can read them. The 
+	 * writer receives a new back buffer afterwards. Should only be called from the writer 
+	 * thread.
+	 * @return Was the data published. False if all the other buffers were still being 
+	 * read, in which case the writer keeps the same back buffer and should write the whole 
+	 * data again before the next publish.
+	 */
+	public synchronized boolean publish()
+	{
+		// The writer receives a buffer no reader is using. The previous latest version is 
+		// used only if the third buffer is still being read.
+		int freeIndex = 3 - this.backIndex - this.latestIndex;
+		if (this.readers[freeIndex] > 0)
+		{
+			if (this.readers[this.latestIndex] > 0)
+				return false;
+			freeIndex = this.latestIndex;
+		}
+		
+		this.latestIndex = this.backIndex;
+		this.backIndex = freeIndex;
+		this.published = true;
+		return true;
+	}
+	
+	/**
+	 * Acquires the latest published version of the data. The buffer won't be modified until 
+	 * it has been released, so it may be shared with other threads in the meanwhile. May be 
+	 * called from any thread.
+	 * @return The latest complete buffer. Null if nothing has been published yet.
+	 * @see #release(Object)
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized T acquireLatest()
+	{
+		if (!this.published)
+			return null;
+		
+		this.readers[this.latestIndex] ++;
+		return (T) this.buffers[this.latestIndex];
+	}
+	
+	/**
+	 * Releases a buffer acquired earlier so that the writer may reuse it. Each acquired 
+	 * buffer should be released exactly once.
+	 * @param buffer A buffer returned by {@link #acquireLatest()}
+	 */
+	public synchronized void release(T buffer)
+	{
+		for (int i = 0; i < this.buffers.length; i++)
+		{
+			if (this.buffers[i] == buffer)
+			{
+				if (this.readers[i] > 0)
+					this.readers[i] --;
+				return;
+			}
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package utopia.genesis.video;
+
+/**
+ * A dynamic resolution controller adjusts the resolution the game world is drawn in based 
+ * on how long drawing takes. The resolution is lowered when drawing exceeds the frame 
+ * budget and raised when there is headroom, always staying between the configured bounds.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see GamePanel#setDynamicResolution(double, double, Object)
+ */
+public class DynamicResolutionController
+{
+	// ATTRIBUTES	------------------------------
+	
+	private static final double AVERAGE_WEIGHT = 0.2;
+	private static final double TARGET_RATIO = 0.85;
+	private static final double MIN_CHANGE = 0.05;
+	private static final int FRAMES_BETWEEN_CHANGES = 15;
+	
+	private double minFactor, maxFactor, factor;
+	private long frameBudgetNanos;
+	private double averagePaintNanos = -1;
+	private int framesSinceChange = 0;
+	
+	
+	// CONSTRUCTOR	------------------------------
+	
+	/**
+	 * Creates a new controller that starts from the highest resolution
+	 * @param minFactor The lowest resolution used, relative to the full resolution (0, 1]
+	 * @param maxFactor The highest resolution used, relative to the full resolution (0, 1]
+	 * @param frameBudgetMillis How many milliseconds drawing a single frame may take
+	 */
+	public DynamicResolutionController(double minFactor, double maxFactor, 
+			double frameBudgetMillis)
+	{
+		// Initializes attributes
+		this.minFactor = Math.max(0.01, Math.min(minFactor, maxFactor));
+		this.maxFactor = Math.max(this.minFactor, Math.max(minFactor, maxFactor));
+		this.factor = this.maxFactor;
+		this.frameBudgetNanos = (long) (frameBudgetMillis * 1000000);
+	}
+	
+	
+	// ACCESSORS	------------------------------
+	
+	/**
+	 * @return The resolution that should currently be used, relative to the full resolution
+	 */
+	public synchronized double getResolutionFactor()
+	{
+		return this.factor;
+	}
+	
+	/**
+	 * @return The lowest resolution used, relative to the full resolution
+	 */
+	public double getMinResolutionFactor()
+	{
+		return this.minFactor;
+	}
+	
+	/**
+	 * @return The highest resolution used, relative to the full resolution
+	 */
+	public double getMaxResolutionFactor()
+	{
+		return this.maxFactor;
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Informs the controller about a drawn frame. The resolution may be changed as a result.
+	 * @param paintNanos How many nanoseconds drawing the frame took
+	 * @return The resolution that should be used for the next frame, relative to the full 
+	 * resolution
+	 */
+	public synchronized double recordFrame(long paintNanos)
+	{
+		if (this.averagePaintNanos < 0)
+			this.averagePaintNanos = paintNanos;
+		else
+			this.averagePaintNanos += (paintNanos - this.averagePaintNanos) * AVERAGE_WEIGHT;
+		
+		// Gives the average some time to settle after each change
+		this.framesSinceChange ++;
+		if (this.framesSinceChange < FRAMES_BETWEEN_CHANGES || this.averagePaintNanos <= 0)
+			return this.factor;
+		
+		// The drawing cost is roughly proportional to the amount of pixels, which is the 
+		// square of the resolution factor
+		double targetFactor = this.factor * Math.sqrt(this.frameBudgetNanos * TARGET_RATIO / 
+				this.averagePaintNanos);
+		targetFactor = Math.max(this.minFactor, Math.min(this.maxFactor, targetFactor));
+		
+		// Small changes are ignored so that the resolution doesn't change constantly
+		if (Math.abs(targetFactor - this.factor) >= MIN_CHANGE * this.factor || 
+				(targetFactor != this.factor && (targetFactor == this.minFactor || 
+				targetFactor == this.maxFactor)))
+		{
+			this.factor = targetFactor;
+			this.averagePaintNanos = -1;
+			this.framesSinceChange = 0;
+		}
+		
+		return this.factor;
+	}
+}
@@ -0,0 +1,406 @@
+package utopia.genesis.video;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.ImageIO;
+
+/**
+ * A frame capturer records rendered frames to disk. The frames are copied into pooled 
+ * buffers and written on a separate writer thread, so that capturing doesn't slow down 
+ * the painting. When the writer can't keep up, frames are either dropped or the painting 
+ * thread waits for a free buffer, depending on the overflow policy.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see GamePanel#setFrameCapturer(FrameCapturer)
+ */
+public class FrameCapturer
+{
+	// ATTRIBUTES	------------------------------
+	
+	private File destination;
+	private OutputFormat format;
+	private OverflowPolicy overflowPolicy;
+	
+	private int maxBuffers;
+	private final AtomicInteger createdBuffers = new AtomicInteger(0);
+	private BlockingQueue<BufferedImage> freeBuffers, queuedFrames;
+	
+	private final AtomicLong capturedFrames = new AtomicLong(0), 
+			droppedFrames = new AtomicLong(0);
+	private volatile boolean ended = false;
+	private WriterThread writer = null;
+	
+	
+	// CONSTRUCTOR	------------------------------
+	
+	/**
+	 * Creates a new capturer. The capturer needs to be started before frames can be captured.
+	 * @param destination The directory the frame images are written to when writing png 
+	 * sequences. The file the frames are written to when writing a raw frame stream.
+	 * @param format The format the frames are written in
+	 * @param queueCapacity How many frames may be waiting to be written at once
+	 * @param overflowPolicy What is done when the queue is full
+	 */
+	public FrameCapturer(File destination, OutputFormat format, int queueCapacity, 
+			OverflowPolicy overflowPolicy)
+	{
+		// Initializes attributes
+		this.destination = destination;
+		this.format = format;
+		this.overflowPolicy = overflowPolicy;
+		
+		// One buffer may be being written while the queue is full
+		this.maxBuffers = Math.max(1, queueCapacity) + 1;
+		this.freeBuffers = new ArrayBlockingQueue<>(this.maxBuffers);
+		this.queuedFrames = new ArrayBlockingQueue<>(this.maxBuffers);
+	}
+	
+	
+	// ACCESSORS	------------------------------
+	
+	/**
+	 * @return How many frames have been captured so far
+	 */
+	public long getCapturedFrameAmount()
+	{
+		return this.capturedFrames.get();
+	}
+	
+	/**
+	 * @return How many frames have been dropped because the writer couldn't keep up
+	 */
+	public long getDroppedFrameAmount()
+	{
+		return this.droppedFrames.get();
+	}
+	
+	/**
+	 * @return Is the capturer accepting new frames
+	 */
+	public boolean isCapturing()
+	{
+		return this.writer != null && !this.ended;
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Starts the writer thread
+	 */
+	public synchronized void start()
+	{
+		if (this.writer == null && !this.ended)
+		{
+			this.writer = new WriterThread();
+			this.writer.start();
+		}
+	}
+	
+	/**
+	 * Stops accepting new frames. The frames already in the queue are still written, after 
+	 * which the writer thread stops.
+	 */
+	public void end()
+	{
+		this.ended = true;
+	}
+	
+	/**
+	 * Stops accepting new frames and waits until the queued frames have been written
+	 * @throws InterruptedException If the thread was interrupted while waiting
+	 */
+	public void endAndWait() throws InterruptedException
+	{
+		end();
+		WriterThread writer = this.writer;
+		if (writer != null)
+			writer.join();
+	}
+	
+	/**
+	 * Finds a buffer a frame can be drawn to. The buffer must be returned with 
+	 * {@link #submit(BufferedImage)} after it has been drawn, or with 
+	 * {@link #release(BufferedImage)} if the frame couldn't be drawn.
+	 * @param width The width of the frame in pixels
+	 * @param height The height of the frame in pixels
+	 * @return A buffer for the frame. Null if the frame should be dropped or the capturer 
+	 * is not capturing.
+	 */
+	public BufferedImage obtainBuffer(int width, int height)
+	{
+		if (!isCapturing() || width <= 0 || height <= 0)
+			return null;
+		
+		BufferedImage buffer = this.freeBuffers.poll();
+		
+		// Creates new buffers until the limit is reached
+		if (buffer == null)
+		{
+			if (this.createdBuffers.incrementAndGet() <= this.maxBuffers)
+				return createBuffer(width, height);
+			this.createdBuffers.decrementAndGet();
+			
+			if (this.overflowPolicy == OverflowPolicy.DROP)
+			{
+				this.droppedFrames.incrementAndGet();
+				return null;
+			}
+			
+			try
+			{
+				// Waits until the writer releases a buffer
+				while (buffer == null && !this.ended)
+				{
+					buffer = this.freeBuffers.poll(100, TimeUnit.MILLISECONDS);
+				}
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+			
+			if (buffer == null)
+			{
+				this.droppedFrames.incrementAndGet();
+				return null;
+			}
+		}
+		
+		// Buffers of wrong size are replaced
+		if (buffer.getWidth() != width || buffer.getHeight() != height)
+			buffer = createBuffer(width, height);
+		
+		return buffer;
+	}
+	
+	/**
+	 * Queues a drawn frame to be written
+	 * @param frame A buffer received from {@link #obtainBuffer(int, int)} that now contains 
+	 * the frame
+	 */
+	public void submit(BufferedImage frame)
+	{
+		// The queue has room for all buffers so this never blocks
+		this.capturedFrames.incrementAndGet();
+		this.queuedFrames.offer(frame);
+	}
+	
+	/**
+	 * Returns a buffer that won't be submitted (for example because drawing the frame 
+	 * failed) so that it can be used for the following frames
+	 * @param buffer A buffer received from {@link #obtainBuffer(int, int)}
+	 */
+	public void release(BufferedImage buffer)
+	{
+		this.droppedFrames.incrementAndGet();
+		this.freeBuffers.offer(buffer);
+	}
+	
+	/**
+	 * Copies a frame and queues it to be written
+	 * @param frame The frame that is captured. The image may be modified after this call.
+	 * @return Was the frame captured (false if it was dropped)
+	 */
+	public boolean capture(BufferedImage frame)
+	{
+		BufferedImage buffer = obtainBuffer(frame.getWidth(), frame.getHeight());
+		if (buffer == null)
+			return false;
+		
+		boolean copied = false;
+		Graphics2D g2d = buffer.createGraphics();
+		try
+		{
+			g2d.drawImage(frame, 0, 0, null);
+			copied = true;
+		}
+		finally
+		{
+			g2d.dispose();
+			if (!copied)
+				release(buffer);
+		}
+		
+		submit(buffer);
+		return true;
+	}
+	
+	private static BufferedImage createBuffer(int width, int height)
+	{
+		// The integer format can be written to a raw stream directly
+		return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+	}
+	
+	
+	// ENUMERATIONS	------------------------------
+	
+	/**
+	 * The output format determines how the captured frames are written to disk
+	 * @author Mikko Hilpinen
+	 * @since 18.10.2026
+	 */
+	public static enum OutputFormat
+	{
+		/**
+		 * Each frame is written to a separate numbered png file
+		 */
+		PNG_SEQUENCE,
+		/**
+		 * All frames are written to a single file. Each frame consists of its width and 
+		 * height as big-endian integers followed by the RGB pixels as big-endian integers, 
+		 * row by row.
+		 */
+		RAW_STREAM
+	}
+	
+	/**
+	 * The overflow policy determines what happens when the writer can't keep up with the 
+	 * captured frames
+	 * @author Mikko Hilpinen
+	 * @since 18.10.2026
+	 */
+	public static enum OverflowPolicy
+	{
+		/**
+		 * New frames are dropped until there is room in the queue. Painting is never slowed 
+		 * down.
+		 */
+		DROP,
+		/**
+		 * The painting thread waits until there is room in the queue. No frames are lost.
+		 */
+		BLOCK
+	}
+	
+	
+	// NESTED CLASSES	--------------------------
+	
+	private class WriterThread extends Thread
+	{
+		// ATTRIBUTES	--------------------------
+		
+		private long frameIndex = 0;
+		private FileChannel channel = null;
+		private ByteBuffer rawBuffer = null;
+		
+		
+		// CONSTRUCTOR	--------------------------
+		
+		public WriterThread()
+		{
+			super("Frame writer");
+			setDaemon(true);
+		}
+		
+		
+		// IMPLEMENTED METHODS	------------------
+		
+		@Override
+		public void run()
+		{
+			try
+			{
+				if (FrameCapturer.this.format == OutputFormat.PNG_SEQUENCE)
+					FrameCapturer.this.destination.mkdirs();
+				else
+					this.channel = FileChannel.open(FrameCapturer.this.destination.toPath(), 
+							StandardOpenOption.CREATE, StandardOpenOption.WRITE, 
+							StandardOpenOption.TRUNCATE_EXISTING);
+				
+				// Writes frames until ended and all queued frames have been written
+				while (!FrameCapturer.this.ended || 
+						!FrameCapturer.this.queuedFrames.isEmpty())
+				{
+					BufferedImage frame = FrameCapturer.this.queuedFrames.poll(100, 
+							TimeUnit.MILLISECONDS);
+					if (frame != null)
+					{
+						write(frame);
+						FrameCapturer.this.freeBuffers.offer(frame);
+					}
+				}
+			}
+			catch (IOException e)
+			{
+				System.err.println("Failed to write captured frames to " + 
+						FrameCapturer.this.destination);
+				e.printStackTrace();
+			}
+			catch (InterruptedException e)
+			{
+				// The writer stops when interrupted
+			}
+			finally
+			{
+				FrameCapturer.this.ended = true;
+				close();
+			}
+		}
+		
+		
+		// OTHER METHODS	----------------------
+		
+		private void write(BufferedImage frame) throws IOException
+		{
+			if (this.channel == null)
+			{
+				File file = new File(FrameCapturer.this.destination, 
+						String.format("frame%06d.png", this.frameIndex));
+				ImageIO.write(frame, "png", file);
+			}
+			else
+			{
+				int width = frame.getWidth();
+				int height = frame.getHeight();
+				int[] pixels = ((DataBufferInt) frame.getRaster().getDataBuffer()).getData();
+				
+				// The byte buffer is reused between frames
+				int size = 8 + width * height * 4;
+				if (this.rawBuffer == null || this.rawBuffer.capacity() < size)
+					this.rawBuffer = ByteBuffer.allocateDirect(size);
+				this.rawBuffer.clear();
+				this.rawBuffer.putInt(width);
+				this.rawBuffer.putInt(height);
+				this.rawBuffer.asIntBuffer().put(pixels, 0, width * height);
+				this.rawBuffer.position(size);
+				this.rawBuffer.flip();
+				
+				while (this.rawBuffer.hasRemaining())
+				{
+					this.channel.write(this.rawBuffer);
+				}
+			}
+			
+			this.frameIndex ++;
+		}
+		
+		private void close()
+		{
+			if (this.channel != null)
+			{
+				try
+				{
+					this.channel.close();
+				}
+				catch (IOException e)
+				{
+					System.err.println("Failed to close the frame stream");
+					e.printStackTrace();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package utopia.genesis.video;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Frame metrics collect measurements about the frames painted by a single game panel. 
+ * The collected values can be read through snapshots and each frame can be followed with 
+ * listeners.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see GamePanel#getFrameMetrics()
+ */
+public class FrameMetrics
+{
+	// ATTRIBUTES	------------------------------
+	
+	private static final double[] HISTOGRAM_LIMITS_MILLIS = {1, 2, 4, 8, 16, 33, 66};
+	
+	private final List<FrameMetricsListener> listeners = new CopyOnWriteArrayList<>();
+	
+	private long frames, skippedFrames, drawablesVisited, drawablesDrawn;
+	private long totalPaintNanos, maxPaintNanos, totalClearNanos;
+	private long totalQueueDelayNanos, maxQueueDelayNanos;
+	private long[] histogram = new long[HISTOGRAM_LIMITS_MILLIS.length + 1];
+	
+	private long pendingRequestNanos = -1;
+	private int skippedSinceLastFrame = 0;
+	
+	
+	// CONSTRUCTOR	------------------------------
+	
+	FrameMetrics()
+	{
+		// Metrics are only created by the game panels
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * @return The upper limits of the paint duration histogram buckets in milliseconds. 
+	 * The last bucket contains all frames that took longer than the last limit.
+	 */
+	public static double[] getHistogramLimitsMillis()
+	{
+		return HISTOGRAM_LIMITS_MILLIS.clone();
+	}
+	
+	/**
+	 * @return The measurements collected since the last reset
+	 */
+	public synchronized FrameMetricsSnapshot getSnapshot()
+	{
+		return new FrameMetricsSnapshot(this.frames, this.skippedFrames, 
+				this.drawablesVisited, this.drawablesDrawn, this.totalPaintNanos, 
+				this.maxPaintNanos, this.totalClearNanos, this.totalQueueDelayNanos, 
+				this.maxQueueDelayNanos, this.histogram.clone());
+	}
+	
+	/**
+	 * Resets all the collected measurements
+	 */
+	public synchronized void reset()
+	{
+		this.frames = 0;
+		this.skippedFrames = 0;
+		this.drawablesVisited = 0;
+		this.drawablesDrawn = 0;
+		this.totalPaintNanos = 0;
+		this.maxPaintNanos = 0;
+		this.totalClearNanos = 0;
+		this.totalQueueDelayNanos = 0;
+		this.maxQueueDelayNanos = 0;
+		this.histogram = new long[HISTOGRAM_LIMITS_MILLIS.length + 1];
+	}
+	
+	/**
+	 * Adds a new listener that will be informed about each painted frame
+	 * @param listener The listener that is added
+	 */
+	public void addListener(FrameMetricsListener listener)
+	{
+		this.listeners.add(listener);
+	}
+	
+	/**
+	 * Removes a listener from the informed listeners
+	 * @param listener The listener that is removed
+	 */
+	public void removeListener(FrameMetricsListener listener)
+	{
+		this.listeners.remove(listener);
+	}
+	
+	/**
+	 * Records a repaint request. If the previous request hasn't been painted yet, the 
+	 * requests are merged and a frame is skipped.
+	 */
+	synchronized void repaintRequested()
+	{
+		if (this.pendingRequestNanos >= 0)
+		{
+			this.skippedFrames ++;
+			this.skippedSinceLastFrame ++;
+		}
+		else
+			this.pendingRequestNanos = System.nanoTime();
+	}
+	
+	/**
+	 * Records a painted frame and informs the listeners
+	 * @param panel The panel that painted the frame
+	 * @param paintStartNanos The time when the painting started
+	 * @param paintNanos How long painting the frame took in nanoseconds
+	 * @param clearNanos How long clearing the previous frame took in nanoseconds
+	 * @param visited How many drawables were visited
+	 * @param drawn How many drawables were actually drawn
+	 */
+	void framePainted(GamePanel panel, long paintStartNanos, long paintNanos, long clearNanos, 
+			int visited, int drawn)
+	{
+		FrameRecord record;
+		synchronized (this)
+		{
+			long queueDelayNanos = 0;
+			if (this.pendingRequestNanos >= 0)
+			{
+				queueDelayNanos = Math.max(0, paintStartNanos - this.pendingRequestNanos);
+				this.pendingRequestNanos = -1;
+			}
+			
+			this.frames ++;
+			this.drawablesVisited += visited;
+			this.drawablesDrawn += drawn;
+			this.totalPaintNanos += paintNanos;
+			this.maxPaintNanos = Math.max(this.maxPaintNanos, paintNanos);
+			this.totalClearNanos += clearNanos;
+			this.totalQueueDelayNanos += queueDelayNanos;
+			this.maxQueueDelayNanos = Math.max(this.maxQueueDelayNanos, queueDelayNanos);
+			
+			double paintMillis = paintNanos / 1000000.0;
+			int bucket = 0;
+			while (bucket < HISTOGRAM_LIMITS_MILLIS.length && 
+					paintMillis >= HISTOGRAM_LIMITS_MILLIS[bucket])
+			{
+				bucket ++;
+			}
+			this.histogram[bucket] ++;
+			
+			if (this.listeners.isEmpty())
+				record = null;
+			else
+				record = new FrameRecord(paintNanos, clearNanos, visited, drawn, 
+						queueDelayNanos, this.skippedSinceLastFrame);
+			this.skippedSinceLastFrame = 0;
+		}
+		
+		// The listeners are informed outside the lock
+		if (record != null)
+		{
+			for (FrameMetricsListener listener : this.listeners)
+			{
+				listener.onFramePainted(panel, record);
+			}
+		}
+	}
+}
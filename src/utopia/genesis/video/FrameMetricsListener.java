@@ -0,0 +1,18 @@
+package utopia.genesis.video;
+
+/**
+ * Frame metrics listeners are informed each time a game panel paints a frame
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see FrameMetrics#addListener(FrameMetricsListener)
+ */
+public interface FrameMetricsListener
+{
+	/**
+	 * This method is called after a panel has painted a frame. The method is called on the 
+	 * thread that painted the frame, so it should return quickly.
+	 * @param panel The panel that painted the frame
+	 * @param frame The measurements of the painted frame
+	 */
+	public void onFramePainted(GamePanel panel, FrameRecord frame);
+}
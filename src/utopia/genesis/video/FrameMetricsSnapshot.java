@@ -0,0 +1,152 @@
+package utopia.genesis.video;
+
+/**
+ * A frame metrics snapshot contains the combined measurements of the frames painted since 
+ * the metrics were last reset. Snapshots are immutable.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see FrameMetrics#getSnapshot()
+ */
+public class FrameMetricsSnapshot
+{
+	// ATTRIBUTES	------------------------------
+	
+	private final long frames, skippedFrames, drawablesVisited, drawablesDrawn;
+	private final long totalPaintNanos, maxPaintNanos, totalClearNanos;
+	private final long totalQueueDelayNanos, maxQueueDelayNanos;
+	private final long[] histogram;
+	
+	
+	// CONSTRUCTOR	------------------------------
+	
+	FrameMetricsSnapshot(long frames, long skippedFrames, long drawablesVisited, 
+			long drawablesDrawn, long totalPaintNanos, long maxPaintNanos, 
+			long totalClearNanos, long totalQueueDelayNanos, long maxQueueDelayNanos, 
+			long[] histogram)
+	{
+		this.frames = frames;
+		this.skippedFrames = skippedFrames;
+		this.drawablesVisited = drawablesVisited;
+		this.drawablesDrawn = drawablesDrawn;
+		this.totalPaintNanos = totalPaintNanos;
+		this.maxPaintNanos = maxPaintNanos;
+		this.totalClearNanos = totalClearNanos;
+		this.totalQueueDelayNanos = totalQueueDelayNanos;
+		this.maxQueueDelayNanos = maxQueueDelayNanos;
+		this.histogram = histogram;
+	}
+	
+	
+	// IMPLEMENTED METHODS	----------------------
+	
+	@Override
+	public String toString()
+	{
+		return String.format("%d frames (%d skipped), paint %.2f ms avg / %.2f ms max, " + 
+				"clear %.2f ms avg, queue delay %.2f ms avg / %.2f ms max, " + 
+				"%.1f drawables visited / %.1f drawn per frame", getFrameAmount(), 
+				getSkippedFrameAmount(), getAveragePaintMillis(), getMaxPaintMillis(), 
+				getAverageClearMillis(), getAverageQueueDelayMillis(), 
+				getMaxQueueDelayMillis(), getAverageDrawablesVisited(), 
+				getAverageDrawablesDrawn());
+	}
+	
+	
+	// ACCESSORS	------------------------------
+	
+	/**
+	 * @return How many frames were painted
+	 */
+	public long getFrameAmount()
+	{
+		return this.frames;
+	}
+	
+	/**
+	 * @return How many frames were skipped because a repaint was requested before the 
+	 * previous request was painted
+	 */
+	public long getSkippedFrameAmount()
+	{
+		return this.skippedFrames;
+	}
+	
+	/**
+	 * @return The average time it took to paint a frame in milliseconds
+	 */
+	public double getAveragePaintMillis()
+	{
+		return average(this.totalPaintNanos) / 1000000;
+	}
+	
+	/**
+	 * @return The longest time it took to paint a frame in milliseconds
+	 */
+	public double getMaxPaintMillis()
+	{
+		return this.maxPaintNanos / 1000000.0;
+	}
+	
+	/**
+	 * @return The average time it took to clear the previous frame in milliseconds
+	 */
+	public double getAverageClearMillis()
+	{
+		return average(this.totalClearNanos) / 1000000;
+	}
+	
+	/**
+	 * @return The average time between a repaint request and the start of the painting 
+	 * in milliseconds
+	 */
+	public double getAverageQueueDelayMillis()
+	{
+		return average(this.totalQueueDelayNanos) / 1000000;
+	}
+	
+	/**
+	 * @return The longest time between a repaint request and the start of the painting 
+	 * in milliseconds
+	 */
+	public double getMaxQueueDelayMillis()
+	{
+		return this.maxQueueDelayNanos / 1000000.0;
+	}
+	
+	/**
+	 * @return The average amount of drawables visited per frame
+	 */
+	public double getAverageDrawablesVisited()
+	{
+		return average(this.drawablesVisited);
+	}
+	
+	/**
+	 * @return The average amount of drawables actually drawn per frame
+	 */
+	public double getAverageDrawablesDrawn()
+	{
+		return average(this.drawablesDrawn);
+	}
+	
+	/**
+	 * @return The amount of frames in each paint duration bucket. The upper limits of the 
+	 * buckets are listed in {@link FrameMetrics#getHistogramLimitsMillis()}, the last bucket 
+	 * containing all the longer frames.
+	 */
+	public long[] getPaintHistogram()
+	{
+		return this.histogram.clone();
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	private double average(long total)
+	{
+		if (this.frames == 0)
+			return 0;
+		else
+			return total / (double) this.frames;
+	}
+}
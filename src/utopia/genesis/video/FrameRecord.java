@@ -0,0 +1,91 @@
+package utopia.genesis.video;
+
+/**
+ * A frame record contains the measurements of a single painted frame
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see FrameMetricsListener
+ */
+public class FrameRecord
+{
+	// ATTRIBUTES	------------------------------
+	
+	private final long paintNanos, clearNanos, queueDelayNanos;
+	private final int drawablesVisited, drawablesDrawn, skippedFrames;
+	
+	
+	// CONSTRUCTOR	------------------------------
+	
+	/**
+	 * Creates a new record
+	 * @param paintNanos How long painting the frame took in nanoseconds
+	 * @param clearNanos How long clearing the previous frame took in nanoseconds
+	 * @param drawablesVisited How many drawables were visited during the painting
+	 * @param drawablesDrawn How many of the visited drawables were actually drawn
+	 * @param queueDelayNanos How long it took from the repaint request until the painting 
+	 * started in nanoseconds
+	 * @param skippedFrames How many frames were skipped since the previous painted frame
+	 */
+	public FrameRecord(long paintNanos, long clearNanos, int drawablesVisited, 
+			int drawablesDrawn, long queueDelayNanos, int skippedFrames)
+	{
+		this.paintNanos = paintNanos;
+		this.clearNanos = clearNanos;
+		this.drawablesVisited = drawablesVisited;
+		this.drawablesDrawn = drawablesDrawn;
+		this.queueDelayNanos = queueDelayNanos;
+		this.skippedFrames = skippedFrames;
+	}
+	
+	
+	// ACCESSORS	------------------------------
+	
+	/**
+	 * @return How long painting the frame took in milliseconds
+	 */
+	public double getPaintMillis()
+	{
+		return this.paintNanos / 1000000.0;
+	}
+	
+	/**
+	 * @return How long clearing the previous frame took in milliseconds
+	 */
+	public double getClearMillis()
+	{
+		return this.clearNanos / 1000000.0;
+	}
+	
+	/**
+	 * @return How many drawables were visited during the painting
+	 */
+	public int getDrawablesVisited()
+	{
+		return this.drawablesVisited;
+	}
+	
+	/**
+	 * @return How many of the visited drawables were actually drawn
+	 */
+	public int getDrawablesDrawn()
+	{
+		return this.drawablesDrawn;
+	}
+	
+	/**
+	 * @return How long it took from the repaint request until the painting started in 
+	 * milliseconds. 0 if the frame was painted without a request.
+	 */
+	public double getQueueDelayMillis()
+	{
+		return this.queueDelayNanos / 1000000.0;
+	}
+	
+	/**
+	 * @return How many frames were skipped since the previous painted frame
+	 */
+	public int getSkippedFrames()
+	{
+		return this.skippedFrames;
+	}
+}
@@ -1,15 +1,25 @@
 package utopia.genesis.video;
 
+import utopia.genesis.event.DrawList;
+import utopia.genesis.event.DrawStatistics;
 import utopia.genesis.event.DrawableHandler;
+import utopia.genesis.image.ScaledImageCache;
 import utopia.genesis.util.DepthConstants;
+import utopia.genesis.util.TextCache;
 import utopia.genesis.util.Vector3D;
 
 import java.awt.Color;
+import java.awt.Container;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
 import java.awt.event.ComponentEvent;
 import java.awt.event.ComponentListener;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 
 import javax.swing.JPanel;
 
@@ -32,7 +42,30 @@ public class GamePanel extends JPanel implements ComponentListener
 	private double scaling = 1;
 	
 	private int refreshWaitMillis;
-	private RefreshThread refreshThread = null;
+	private volatile RefreshThread refreshThread = null;
+	private volatile RenderScheduler renderScheduler = null;
+	private volatile boolean renderOnDemand = false, redrawRequested = true;
+	private volatile long maxIdleMillis = 0, lastRepaintMillis = 0;
+	
+	private volatile boolean rendersOffscreen = false;
+	private BufferedImage offscreenFrame = null;
+	private volatile TiledRenderer tiledRenderer = null;
+	private volatile FrameCapturer frameCapturer = null;
+	private volatile RenderQuality renderQuality = null;
+	private volatile RenderQualityController qualityController = null;
+	
+	private volatile double backBufferScaling = 0;
+	private volatile Vector3D internalResolution = null;
+	private volatile Object backBufferInterpolation = null;
+	private volatile DynamicResolutionController dynamicResolution = null;
+	private BufferedImage backBuffer = null;
+	
+	private final FrameMetrics frameMetrics = new FrameMetrics();
+	private final DrawStatistics drawStatistics = new DrawStatistics();
+	private volatile long clearNanos = 0;
+	
+	private final TextCache textCache = new TextCache(256);
+	private final ScaledImageCache scaledImageCache = new ScaledImageCache();
 	
 	
 	// CONSTRUCTOR ---------------------------------------------------------
@@ -58,6 +91,7 @@ public class GamePanel extends JPanel implements ComponentListener
 		this.scalingPolicy = scalingPolicy;
 		
 		this.drawer = new DrawableHandler(true, DepthConstants.NORMAL, 5);
+		this.drawer.setRedrawListener(this::requestRedraw);
 		
 		//Formats the panel
 		setLayout(null);
@@ -77,30 +111,13 @@ public class GamePanel extends JPanel implements ComponentListener
 	@Override
 	public void paintComponent(Graphics g)
 	{
-		super.paintComponent(g);
-		
-		// The panel draws all stuff inside it
-		Graphics2D g2d = (Graphics2D) g;
-		AffineTransform previousTransform = g2d.getTransform();
-		
-		// Scales the area of drawing
-		if (this.scaling != 1)
-			g2d.scale(this.scaling, this.scaling);
-		
-		// Clears the former drawings (optional)
-		if (this.clearPrevious)
-		{
-			g2d.clearRect(0, 0, getWidth(), getHeight());
-		
-			// Draws the background as well
-			g.setColor(getBackground());
-			g.fillRect(0, 0, getWidth(), getHeight());
-		}
-		
-		g.setColor(Color.BLACK);
-		this.drawer.drawSelf(g2d);
+		long paintStartNanos = System.nanoTime();
+		paintFrame(g);
 		
-		g2d.setTransform(previousTransform);
+		// Offscreen rendered panels report the statistics of their latest rendered frame
+		this.frameMetrics.framePainted(this, paintStartNanos, 
+				System.nanoTime() - paintStartNanos, this.clearNanos, 
+				this.drawStatistics.getVisitedAmount(), this.drawStatistics.getDrawnAmount());
 	}
 	
 	@Override
@@ -108,7 +125,10 @@ public class GamePanel extends JPanel implements ComponentListener
 	{
 		// On each resize, the scaling is adjusted accordingly
 		if (equals(e.getComponent()))
+		{
 			calculateScaling();
+			requestRedraw();
+		}
 	}
 
 	@Override
@@ -120,8 +140,8 @@ public class GamePanel extends JPanel implements ComponentListener
 	@Override
 	public void componentShown(ComponentEvent e)
 	{
-		// Starts the refreshing thread
-		if (this.refreshThread == null)
+		// Starts the refreshing thread (unless a shared scheduler is used)
+		if (this.refreshThread == null && this.renderScheduler == null)
 		{
 			this.refreshThread = new RefreshThread();
 			this.refreshThread.start();
@@ -150,6 +170,34 @@ public class GamePanel extends JPanel implements ComponentListener
 		return this.drawer;
 	}
 	
+	/**
+	 * @return The text cache drawables in this panel can use for drawing text. The cache 
+	 * is cleared whenever the panel's scaling changes.
+	 */
+	public TextCache getTextCache()
+	{
+		return this.textCache;
+	}
+	
+	/**
+	 * @return The cache drawables in this panel can use for drawing images without 
+	 * resampling them on every frame. The images are scaled in the background to the 
+	 * scaling they're actually drawn at, which also takes the back buffer, dynamic 
+	 * resolution and display scaling into account.
+	 */
+	public ScaledImageCache getScaledImageCache()
+	{
+		return this.scaledImageCache;
+	}
+	
+	/**
+	 * @return The measurements collected from the frames painted on this panel
+	 */
+	public FrameMetrics getFrameMetrics()
+	{
+		return this.frameMetrics;
+	}
+	
 	/**
 	 * @return The current in-game size of the panel
 	 */
@@ -188,6 +236,15 @@ public class GamePanel extends JPanel implements ComponentListener
 		return this.scaling;
 	}
 	
+	/**
+	 * @return The render quality currently used by the panel. Null if the panel doesn't 
+	 * set any rendering hints.
+	 */
+	public RenderQuality getRenderQuality()
+	{
+		return this.renderQuality;
+	}
+	
 	
 	// OTHER METHODS ---------------------------------------------------
 	
@@ -200,6 +257,552 @@ public class GamePanel extends JPanel implements ComponentListener
 		this.clearPrevious = clearEnabled;
 	}
 	
+	/**
+	 * Changes whether the panel is repainted constantly or only when its content changes. 
+	 * When rendering on demand, the panel is repainted only after {@link #requestRedraw()} 
+	 * has been called (which happens when the panel's drawable handler is marked dirty). 
+	 * The frame rate limit is still respected.
+	 * @param onDemand Should the panel only be repainted when its content changes
+	 * @param maxIdleMillis The maximum amount of milliseconds the panel stays without a 
+	 * repaint when rendering on demand. 0 or less if there is no limit.
+	 * @see DrawableHandler#markDirty()
+	 */
+	public void setRenderOnDemand(boolean onDemand, long maxIdleMillis)
+	{
+		this.maxIdleMillis = maxIdleMillis;
+		this.renderOnDemand = onDemand;
+		
+		// The refresh thread may need to wake up and reconsider its schedule
+		requestRedraw();
+	}
+	
+	/**
+	 * Changes whether the panel's content is rasterized in tiles on multiple threads. This 
+	 * is useful for large, high-resolution panels. Drawables that specify their draw bounds 
+	 * are only drawn to the tiles they intersect.
+	 * @param tileSize The width and height of a single tile in pixels. 0 or less if tiled 
+	 * rendering should not be used.
+	 * @see utopia.genesis.event.Drawable#getDrawBounds()
+	 */
+	public void setTiledRendering(int tileSize)
+	{
+		TiledRenderer previousRenderer = this.tiledRenderer;
+		if (tileSize > 0)
+			this.tiledRenderer = new TiledRenderer(tileSize, 
+					Runtime.getRuntime().availableProcessors());
+		else
+			this.tiledRenderer = null;
+		
+		if (previousRenderer != null)
+			previousRenderer.end();
+	}
+	
+	/**
+	 * Makes the panel draw its content into a back buffer, which is then scaled to the 
+	 * panel's size in a single step. Since the drawables are drawn without the panel's 
+	 * scaling, the drawing cost doesn't depend on the panel's size.
+	 * @param internalScaling How much the game world is scaled in the back buffer. 1 
+	 * means that the back buffer has the game world resolution. 0 or less if no back 
+	 * buffer should be used.
+	 * @param interpolation The interpolation used when the back buffer is scaled to the 
+	 * panel (one of the RenderingHints.VALUE_INTERPOLATION_X values). Null if the 
+	 * interpolation of the current render quality should be used.
+	 * @see #setInternalResolution(Vector3D, Object)
+	 */
+	public void setBackBufferRendering(double internalScaling, Object interpolation)
+	{
+		this.internalResolution = null;
+		this.dynamicResolution = null;
+		this.backBufferInterpolation = interpolation;
+		this.backBufferScaling = Math.max(0, internalScaling);
+		if (internalScaling <= 0)
+			this.backBuffer = null;
+	}
+	
+	/**
+	 * Makes the panel draw its content into a back buffer of a fixed resolution, which 
+	 * is then scaled to the panel's size in a single step. The game world is scaled to 
+	 * fit the resolution.
+	 * @param resolution The internal resolution used. Null if no back buffer should be used.
+	 * @param interpolation The interpolation used when the back buffer is scaled to the 
+	 * panel (one of the RenderingHints.VALUE_INTERPOLATION_X values). Null if the 
+	 * interpolation of the current render quality should be used.
+	 * @see #setBackBufferRendering(double, Object)
+	 */
+	public void setInternalResolution(Vector3D resolution, Object interpolation)
+	{
+		this.backBufferScaling = 0;
+		this.dynamicResolution = null;
+		this.backBufferInterpolation = interpolation;
+		this.internalResolution = resolution;
+		if (resolution == null)
+			this.backBuffer = null;
+	}
+	
+	/**
+	 * Makes the panel draw its content into a back buffer whose resolution changes based on 
+	 * how long drawing takes. The back buffer is scaled to the panel's size in a single 
+	 * step. This keeps the frame rate stable on slower hardware. The panel's scaling 
+	 * policy still determines the visible game world area.
+	 * @param minResolution The lowest resolution used, relative to the panel's resolution 
+	 * (0, 1]
+	 * @param maxResolution The highest resolution used, relative to the panel's resolution 
+	 * (0, 1]
+	 * @param interpolation The interpolation used when the back buffer is scaled to the 
+	 * panel (one of the RenderingHints.VALUE_INTERPOLATION_X values). Null if the 
+	 * interpolation of the current render quality should be used.
+	 * @see DynamicResolutionController
+	 * @see #setBackBufferRendering(double, Object)
+	 */
+	public void setDynamicResolution(double minResolution, double maxResolution, 
+			Object interpolation)
+	{
+		this.internalResolution = null;
+		this.backBufferScaling = 0;
+		this.backBufferInterpolation = interpolation;
+		this.dynamicResolution = new DynamicResolutionController(minResolution, 
+				maxResolution, getFrameBudgetMillis());
+	}
+	
+	/**
+	 * Changes the rendering hints used when drawing the panel's content. This disables 
+	 * adaptive render quality.
+	 * @param quality The render quality used. Null if the panel shouldn't set any 
+	 * rendering hints.
+	 */
+	public void setRenderQuality(RenderQuality quality)
+	{
+		this.qualityController = null;
+		this.renderQuality = quality;
+	}
+	
+	/**
+	 * Makes the panel adjust its render quality based on how long drawing its content 
+	 * takes. The quality is lowered when drawing exceeds the frame time and raised again 
+	 * when there is enough headroom.
+	 * @param minQuality The lowest quality the panel may use
+	 * @param maxQuality The highest quality the panel may use
+	 * @see RenderQualityController
+	 */
+	public void setAdaptiveRenderQuality(RenderQuality minQuality, RenderQuality maxQuality)
+	{
+		RenderQualityController controller = new RenderQualityController(minQuality, 
+				maxQuality, getFrameBudgetMillis());
+		
+		this.renderQuality = controller.getQuality();
+		this.qualityController = controller;
+	}
+	
+	/**
+	 * Changes the object that records the frames painted on this panel. The capturer 
+	 * should be started separately.
+	 * @param capturer The capturer that receives the painted frames. Null if the frames 
+	 * shouldn't be captured.
+	 */
+	public void setFrameCapturer(FrameCapturer capturer)
+	{
+		this.frameCapturer = capturer;
+	}
+	
+	/**
+	 * Requests the panel to be repainted on the next frame. This is only necessary when the 
+	 * panel renders on demand.
+	 * @see #setRenderOnDemand(boolean, long)
+	 */
+	public void requestRedraw()
+	{
+		this.redrawRequested = true;
+		
+		RenderScheduler scheduler = this.renderScheduler;
+		if (scheduler != null)
+			scheduler.wake();
+		else
+		{
+			RefreshThread thread = this.refreshThread;
+			if (thread != null)
+				thread.wake();
+		}
+	}
+	
+	/**
+	 * Changes the scheduler that repaints this panel. When a shared scheduler is used, the 
+	 * panel doesn't use its own refresh thread and the panel's own frame rate is ignored.
+	 * @param scheduler The scheduler that will repaint this panel. Null if the panel should 
+	 * be repainted by its own refresh thread.
+	 * @see SplitPanel#useSharedRenderScheduler(int)
+	 */
+	public void setRenderScheduler(RenderScheduler scheduler)
+	{
+		if (scheduler == this.renderScheduler)
+			return;
+		
+		if (this.renderScheduler != null)
+			this.renderScheduler.removePanel(this);
+		this.renderScheduler = scheduler;
+		
+		if (scheduler == null)
+		{
+			// Returns to using a separate refresh thread
+			if (this.refreshThread == null && isShowing())
+			{
+				this.refreshThread = new RefreshThread();
+				this.refreshThread.start();
+			}
+		}
+		else
+		{
+			// The panel's own refresh thread is no longer needed
+			if (this.refreshThread != null)
+			{
+				this.refreshThread.end();
+				this.refreshThread = null;
+			}
+			scheduler.addPanel(this);
+		}
+	}
+	
+	/**
+	 * Checks how long it is until this panel should be repainted
+	 * @param currentMillis The current time in milliseconds
+	 * @return 0 if the panel should be repainted now, the amount of milliseconds until the 
+	 * next repaint or -1 if the panel waits for a redraw request
+	 */
+	long millisUntilRepaint(long currentMillis)
+	{
+		if (!this.renderOnDemand || this.redrawRequested)
+			return 0;
+		
+		long maxIdle = this.maxIdleMillis;
+		if (maxIdle <= 0)
+			return -1;
+		else
+			return Math.max(0, this.lastRepaintMillis + maxIdle - currentMillis);
+	}
+	
+	/**
+	 * Requests a repaint for the panel's next frame
+	 * @param currentMillis The current time in milliseconds
+	 */
+	void repaintFrame(long currentMillis)
+	{
+		this.redrawRequested = false;
+		this.lastRepaintMillis = currentMillis;
+		this.frameMetrics.repaintRequested();
+		
+		// Offscreen rendered panels are rendered when the parent panel paints its children
+		Container parent = getParent();
+		if (this.rendersOffscreen && parent != null)
+			parent.repaint(getX(), getY(), getWidth(), getHeight());
+		else
+			repaint();
+	}
+	
+	/**
+	 * Changes whether the panel's content is rendered into an offscreen buffer by its 
+	 * parent panel instead of being drawn directly during painting.
+	 * @param rendersOffscreen Should the panel's content be rendered offscreen
+	 * @see #renderOffscreen()
+	 */
+	void setRenderedOffscreen(boolean rendersOffscreen)
+	{
+		this.rendersOffscreen = rendersOffscreen;
+		if (!rendersOffscreen)
+			this.offscreenFrame = null;
+	}
+	
+	/**
+	 * Renders the panel's current content into the panel's offscreen buffer. This method 
+	 * may be called from a thread other than the event dispatch thread, but not while the 
+	 * panel is being painted.
+	 */
+	void renderOffscreen()
+	{
+		int width = getWidth();
+		int height = getHeight();
+		if (width <= 0 || height <= 0)
+			return;
+		
+		// The buffer is reused while the panel size stays the same
+		BufferedImage frame = this.offscreenFrame;
+		boolean isNewBuffer = false;
+		if (frame == null || frame.getWidth() != width || frame.getHeight() != height)
+		{
+			GraphicsConfiguration configuration = getGraphicsConfiguration();
+			if (configuration == null)
+				frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+			else
+				frame = configuration.createCompatibleImage(width, height, 
+						Transparency.OPAQUE);
+			isNewBuffer = true;
+		}
+		
+		Graphics2D g2d = frame.createGraphics();
+		try
+		{
+			g2d.setBackground(getBackground());
+			
+			// A new buffer always starts with the background
+			if (isNewBuffer)
+			{
+				g2d.setColor(getBackground());
+				g2d.fillRect(0, 0, width, height);
+			}
+			
+			drawContent(g2d);
+		}
+		finally
+		{
+			g2d.dispose();
+		}
+		
+		this.offscreenFrame = frame;
+	}
+	
+	private void paintFrame(Graphics g)
+	{
+		// When rendered offscreen, only the latest rendered frame is drawn
+		FrameCapturer capturer = this.frameCapturer;
+		if (this.rendersOffscreen)
+		{
+			BufferedImage frame = this.offscreenFrame;
+			if (frame != null)
+			{
+				g.drawImage(frame, 0, 0, null);
+				if (capturer != null)
+					capturer.capture(frame);
+			}
+			else
+				super.paintComponent(g);
+			return;
+		}
+		
+		// When capturing, the frame is drawn into the capture buffer first and then 
+		// copied to the screen
+		if (capturer != null)
+		{
+			BufferedImage frame = capturer.obtainBuffer(getWidth(), getHeight());
+			if (frame != null)
+			{
+				// The buffer is returned to the capturer even if drawing the frame fails
+				boolean drawn = false;
+				Graphics2D frameGraphics = frame.createGraphics();
+				try
+				{
+					frameGraphics.setBackground(getBackground());
+					frameGraphics.setColor(getBackground());
+					frameGraphics.fillRect(0, 0, getWidth(), getHeight());
+					drawContent(frameGraphics);
+					drawn = true;
+				}
+				finally
+				{
+					frameGraphics.dispose();
+					if (!drawn)
+						capturer.release(frame);
+				}
+				
+				g.drawImage(frame, 0, 0, null);
+				capturer.submit(frame);
+				return;
+			}
+		}
+		
+		// The panel isn't filled with the background here. The back buffer covers the 
+		// whole panel and otherwise the world drawing clears the panel itself, unless an 
+		// opaque drawable covers it or clearing is disabled.
+		
+		// The panel draws all stuff inside it
+		drawContent((Graphics2D) g);
+	}
+	
+	private void drawContent(Graphics2D g2d)
+	{
+		long drawStartNanos = System.nanoTime();
+		this.drawStatistics.reset();
+		this.clearNanos = 0;
+		
+		// When a back buffer is used, the world is drawn at the internal resolution and 
+		// then scaled to the panel only once
+		double internalScaling = getBackBufferScaling();
+		if (internalScaling > 0)
+		{
+			int bufferWidth = Math.max(1, (int) Math.round(this.gameWorldSize.getX() * 
+					internalScaling));
+			int bufferHeight = Math.max(1, (int) Math.round(this.gameWorldSize.getY() * 
+					internalScaling));
+			BufferedImage buffer = prepareBackBuffer(bufferWidth, bufferHeight);
+			
+			// The buffer may be larger than the drawn area
+			Graphics2D bufferGraphics = buffer.createGraphics();
+			try
+			{
+				bufferGraphics.clipRect(0, 0, bufferWidth, bufferHeight);
+				bufferGraphics.setBackground(getBackground());
+				drawWorld(bufferGraphics, bufferWidth, bufferHeight, internalScaling);
+			}
+			finally
+			{
+				bufferGraphics.dispose();
+			}
+			
+			Object previousInterpolation = g2d.getRenderingHint(
+					RenderingHints.KEY_INTERPOLATION);
+			g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, 
+					getBackBufferInterpolation());
+			g2d.drawImage(buffer, 0, 0, getWidth(), getHeight(), 0, 0, bufferWidth, 
+					bufferHeight, null);
+			if (previousInterpolation != null)
+				g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, previousInterpolation);
+		}
+		else
+			drawWorld(g2d, getWidth(), getHeight(), this.scaling);
+		
+		// Adjusts the render quality and resolution for the next frame based on the 
+		// draw time
+		long drawNanos = System.nanoTime() - drawStartNanos;
+		RenderQualityController controller = this.qualityController;
+		if (controller != null)
+			this.renderQuality = controller.recordFrame(drawNanos);
+		DynamicResolutionController resolutionController = this.dynamicResolution;
+		if (resolutionController != null)
+			resolutionController.recordFrame(drawNanos);
+	}
+	
+	private void drawWorld(Graphics2D g2d, int width, int height, double scaling)
+	{
+		AffineTransform previousTransform = g2d.getTransform();
+		
+		RenderQuality quality = this.renderQuality;
+		if (quality != null)
+			quality.apply(g2d);
+		
+		// Scales the area of drawing
+		if (scaling != 1)
+			g2d.scale(scaling, scaling);
+		
+		// The drawables are collected only once per frame. The same list tells whether an 
+		// opaque drawable covers the whole panel.
+		DrawList drawList = this.drawer.collectDrawList(new Rectangle2D.Double(0, 0, 
+				width / scaling, height / scaling));
+		
+		// Clears the former drawings with the background (optional). This is the only 
+		// time the panel is filled, and it is skipped when an opaque drawable covers the 
+		// whole panel anyway. The size of the area is in pixels, so the world scaling isn't 
+		// applied to the fill.
+		if (this.clearPrevious && !drawList.coversArea())
+		{
+			long clearStartNanos = System.nanoTime();
+			AffineTransform worldTransform = g2d.getTransform();
+			g2d.setTransform(previousTransform);
+			g2d.setColor(getBackground());
+			g2d.fillRect(0, 0, width, height);
+			g2d.setTransform(worldTransform);
+			this.clearNanos = System.nanoTime() - clearStartNanos;
+		}
+		
+		g2d.setColor(Color.BLACK);
+		
+		// The tiled renderer handles the scaling itself
+		TiledRenderer tiledRenderer = this.tiledRenderer;
+		try
+		{
+			if (tiledRenderer != null)
+			{
+				g2d.setTransform(previousTransform);
+				tiledRenderer.render(this.drawer, drawList, g2d, width, height, scaling, 
+						this.drawStatistics);
+			}
+			else
+				this.drawer.drawSelf(g2d, drawList, this.drawStatistics);
+		}
+		finally
+		{
+			drawList.release();
+		}
+		
+		g2d.setTransform(previousTransform);
+	}
+	
+	private BufferedImage prepareBackBuffer(int width, int height)
+	{
+		// When the resolution changes dynamically, the buffer is created for the maximum 
+		// resolution and only a part of it is used
+		int maxWidth = width;
+		int maxHeight = height;
+		DynamicResolutionController resolutionController = this.dynamicResolution;
+		if (resolutionController != null)
+		{
+			double maxScaling = this.scaling * resolutionController.getMaxResolutionFactor();
+			maxWidth = Math.max(width, (int) Math.round(this.gameWorldSize.getX() * 
+					maxScaling));
+			maxHeight = Math.max(height, (int) Math.round(this.gameWorldSize.getY() * 
+					maxScaling));
+		}
+		
+		// The buffer is reused while its size stays valid
+		BufferedImage buffer = this.backBuffer;
+		if (buffer == null || buffer.getWidth() < width || buffer.getHeight() < height || 
+				buffer.getWidth() > maxWidth || buffer.getHeight() > maxHeight)
+		{
+			width = maxWidth;
+			height = maxHeight;
+			
+			GraphicsConfiguration configuration = getGraphicsConfiguration();
+			if (configuration == null)
+				buffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+			else
+				buffer = configuration.createCompatibleImage(width, height, 
+						Transparency.OPAQUE);
+			
+			// A new buffer always starts with the background
+			Graphics2D g2d = buffer.createGraphics();
+			g2d.setColor(getBackground());
+			g2d.fillRect(0, 0, width, height);
+			g2d.dispose();
+			
+			this.backBuffer = buffer;
+		}
+		
+		return buffer;
+	}
+	
+	private double getBackBufferScaling()
+	{
+		DynamicResolutionController resolutionController = this.dynamicResolution;
+		if (resolutionController != null)
+			return this.scaling * resolutionController.getResolutionFactor();
+		
+		Vector3D resolution = this.internalResolution;
+		if (resolution != null)
+			return Math.min(resolution.getX() / this.gameWorldSize.getX(), 
+					resolution.getY() / this.gameWorldSize.getY());
+		else
+			return this.backBufferScaling;
+	}
+	
+	private double getFrameBudgetMillis()
+	{
+		// Without a frame rate limit, the panel aims at 60 frames per second
+		if (this.refreshWaitMillis > 0)
+			return this.refreshWaitMillis;
+		else
+			return 1000.0 / 60;
+	}
+	
+	private Object getBackBufferInterpolation()
+	{
+		Object interpolation = this.backBufferInterpolation;
+		if (interpolation != null)
+			return interpolation;
+		
+		// By default, uses the interpolation of the current render quality
+		RenderQuality quality = this.renderQuality;
+		if (quality != null)
+			return quality.getInterpolation();
+		else
+			return RenderingHints.VALUE_INTERPOLATION_BILINEAR;
+	}
+	
 	private void calculateScaling()
 	{
 		Vector3D size = new Vector3D(getWidth(), getHeight());
@@ -230,8 +833,12 @@ public class GamePanel extends JPanel implements ComponentListener
 						size.getX() / size.getY(), this.originalGameWorldSize.getY());
 		}
 		
-		// Calculates the scaling used in drawing
+		// Calculates the scaling used in drawing. Text laid out for the previous scaling 
+		// is no longer used.
+		double previousScaling = this.scaling;
 		this.scaling = size.dividedBy(this.gameWorldSize).getX();
+		if (this.scaling != previousScaling)
+			this.textCache.clear();
 	}
 	
 	
@@ -270,7 +877,7 @@ public class GamePanel extends JPanel implements ComponentListener
 	{
 		// ATTRIBUTES	-------------
 		
-		private boolean ended = false;
+		private volatile boolean ended = false;
 		
 		
 		// IMPLEMENTED METHODS	-----
@@ -280,32 +887,58 @@ public class GamePanel extends JPanel implements ComponentListener
 		{
 			while (!this.ended)
 			{
-				long nextDrawMillis = System.currentTimeMillis() + GamePanel.this.refreshWaitMillis;
+				long currentMillis = System.currentTimeMillis();
+				long untilRepaintMillis = millisUntilRepaint(currentMillis);
 				
 				// Redraws the screen, then waits if necessary
-				repaint();
-				
-				long waitMillis = nextDrawMillis - System.currentTimeMillis();
-				if (waitMillis > 0)
+				if (untilRepaintMillis == 0)
 				{
-					try
-					{
-						wait(waitMillis);
-					}
-					catch (InterruptedException e)
-					{
-						// Wait interrupt is ignored
-					}
+					long nextDrawMillis = currentMillis + GamePanel.this.refreshWaitMillis;
+					repaintFrame(currentMillis);
+					waitUntil(nextDrawMillis);
 				}
+				// When rendering on demand, waits until a redraw is requested or the 
+				// maximum idle time is reached
+				else
+					waitMillis(Math.max(0, untilRepaintMillis));
 			}
 		}
 		
 		
 		// OTHER METHODS	-------
 		
-		public void end()
+		public synchronized void end()
 		{
 			this.ended = true;
+			notifyAll();
+		}
+		
+		public synchronized void wake()
+		{
+			notifyAll();
+		}
+		
+		private void waitUntil(long targetMillis)
+		{
+			long waitMillis = targetMillis - System.currentTimeMillis();
+			while (waitMillis > 0 && !this.ended)
+			{
+				waitMillis(waitMillis);
+				waitMillis = targetMillis - System.currentTimeMillis();
+			}
+		}
+		
+		// 0 millis means waiting until notified
+		private void waitMillis(long millis)
+		{
+			try
+			{
+				wait(millis);
+			}
+			catch (InterruptedException e)
+			{
+				// Wait interrupt is ignored
+			}
 		}
 	}
 }
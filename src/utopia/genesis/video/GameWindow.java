@@ -161,6 +161,18 @@ public class GameWindow extends JFrame implements ComponentListener
 		getMainPanel().addGamePanel(panel);
 	}
 	
+	/**
+	 * Makes all game panels in this window be repainted by a single shared scheduler
+	 * @param framesPerSecond How many times a second the panels are refreshed. If the value 
+	 * is 0 or less, the panels will be updated constantly.
+	 * @return The scheduler that now repaints the panels
+	 * @see SplitPanel#useSharedRenderScheduler(int)
+	 */
+	public RenderScheduler useSharedRenderScheduler(int framesPerSecond)
+	{
+		return getMainPanel().useSharedRenderScheduler(framesPerSecond);
+	}
+	
 	/**
 	 * Makes the window fill the whole screen without borders
 	 * @param showTaskBar Should some area be left for the task bar
@@ -0,0 +1,186 @@
+package utopia.genesis.video;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import utopia.genesis.event.DrawableHandler;
+import utopia.genesis.util.Vector3D;
+
+/**
+ * An offscreen renderer draws the content of a drawable handler into an image instead of a 
+ * panel. The renderer doesn't require a window or a display, so it can be used even when 
+ * java.awt.headless is true. This is useful for creating thumbnails and for measuring the 
+ * rendering performance.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class OffscreenRenderer
+{
+	// ATTRIBUTES	------------------------------
+	
+	private Vector3D gameWorldSize;
+	private double scaling;
+	private Color background = Color.WHITE;
+	private BufferedImage frame = null;
+	
+	
+	// CONSTRUCTOR	------------------------------
+	
+	/**
+	 * Creates a new renderer
+	 * @param gameWorldSize The size of the game world area that is rendered
+	 * @param scaling How much the game world is scaled in the rendered image
+	 */
+	public OffscreenRenderer(Vector3D gameWorldSize, double scaling)
+	{
+		this.gameWorldSize = gameWorldSize;
+		this.scaling = scaling;
+	}
+	
+	
+	// ACCESSORS	------------------------------
+	
+	/**
+	 * @return The size of the game world area that is rendered
+	 */
+	public Vector3D getGameWorldSize()
+	{
+		return this.gameWorldSize;
+	}
+	
+	/**
+	 * Changes the size of the rendered game world area
+	 * @param gameWorldSize The size of the game world area that is rendered
+	 */
+	public void setGameWorldSize(Vector3D gameWorldSize)
+	{
+		this.gameWorldSize = gameWorldSize;
+	}
+	
+	/**
+	 * @return How much the game world is scaled in the rendered image
+	 */
+	public double getScaling()
+	{
+		return this.scaling;
+	}
+	
+	/**
+	 * Changes how much the game world is scaled in the rendered image
+	 * @param scaling How much the game world is scaled in the rendered image
+	 */
+	public void setScaling(double scaling)
+	{
+		this.scaling = scaling;
+	}
+	
+	/**
+	 * @return The background colour the image is filled with before drawing. Null if the 
+	 * background is transparent.
+	 */
+	public Color getBackground()
+	{
+		return this.background;
+	}
+	
+	/**
+	 * Changes the background colour of the rendered images
+	 * @param background The background colour the image is filled with before drawing. 
+	 * Null if the background should be transparent.
+	 */
+	public void setBackground(Color background)
+	{
+		this.background = background;
+	}
+	
+	/**
+	 * @return The width of the rendered image in pixels
+	 */
+	public int getImageWidth()
+	{
+		return Math.max(1, (int) Math.ceil(this.gameWorldSize.getX() * this.scaling));
+	}
+	
+	/**
+	 * @return The height of the rendered image in pixels
+	 */
+	public int getImageHeight()
+	{
+		return Math.max(1, (int) Math.ceil(this.gameWorldSize.getY() * this.scaling));
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Renders the content of a drawable handler. The image is reused, so its contents are 
+	 * replaced on the next render.
+	 * @param drawer The drawable handler that draws the content
+	 * @return The rendered image
+	 */
+	public BufferedImage render(DrawableHandler drawer)
+	{
+		int width = getImageWidth();
+		int height = getImageHeight();
+		boolean transparent = this.background == null || this.background.getAlpha() < 255;
+		int imageType = transparent ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+		
+		BufferedImage frame = this.frame;
+		if (frame == null || frame.getWidth() != width || frame.getHeight() != height || 
+				frame.getType() != imageType)
+		{
+			frame = new BufferedImage(width, height, imageType);
+			this.frame = frame;
+		}
+		
+		render(drawer, frame);
+		return frame;
+	}
+	
+	/**
+	 * Renders the content of a drawable handler into a new image
+	 * @param drawer The drawable handler that draws the content
+	 * @return A new image that contains the rendered content
+	 */
+	public BufferedImage renderToNewImage(DrawableHandler drawer)
+	{
+		BufferedImage frame = render(drawer);
+		this.frame = null;
+		return frame;
+	}
+	
+	/**
+	 * Renders the content of a drawable handler into the provided image. The rendered area 
+	 * is placed at the image's top left corner.
+	 * @param drawer The drawable handler that draws the content
+	 * @param target The image the content is drawn to
+	 */
+	public void render(DrawableHandler drawer, BufferedImage target)
+	{
+		Graphics2D g2d = target.createGraphics();
+		try
+		{
+			int width = getImageWidth();
+			int height = getImageHeight();
+			
+			// Clears the previous content
+			if (this.background == null)
+				g2d.setBackground(new Color(0, 0, 0, 0));
+			else
+				g2d.setBackground(this.background);
+			g2d.clearRect(0, 0, width, height);
+			
+			g2d.clipRect(0, 0, width, height);
+			if (this.scaling != 1)
+				g2d.scale(this.scaling, this.scaling);
+			
+			g2d.setColor(Color.BLACK);
+			drawer.drawSelf(g2d);
+		}
+		finally
+		{
+			g2d.dispose();
+		}
+	}
+}
@@ -0,0 +1,101 @@
+package utopia.genesis.video;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+
+/**
+ * Render qualities are tiers of rendering hints that trade drawing speed for visual 
+ * quality
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see GamePanel#setRenderQuality(RenderQuality)
+ */
+public enum RenderQuality
+{
+	/**
+	 * The fastest rendering. No antialiasing and nearest neighbour interpolation.
+	 */
+	LOW(RenderingHints.VALUE_ANTIALIAS_OFF, RenderingHints.VALUE_TEXT_ANTIALIAS_OFF, 
+			RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR, 
+			RenderingHints.VALUE_ALPHA_INTERPOLATION_SPEED, RenderingHints.VALUE_RENDER_SPEED, 
+			RenderingHints.VALUE_STROKE_NORMALIZE),
+	/**
+	 * Antialiased text and bilinear interpolation, otherwise default rendering
+	 */
+	MEDIUM(RenderingHints.VALUE_ANTIALIAS_OFF, RenderingHints.VALUE_TEXT_ANTIALIAS_ON, 
+			RenderingHints.VALUE_INTERPOLATION_BILINEAR, 
+			RenderingHints.VALUE_ALPHA_INTERPOLATION_DEFAULT, 
+			RenderingHints.VALUE_RENDER_DEFAULT, RenderingHints.VALUE_STROKE_DEFAULT),
+	/**
+	 * The best looking rendering. Antialiased shapes and text, bicubic interpolation and 
+	 * pure strokes.
+	 */
+	HIGH(RenderingHints.VALUE_ANTIALIAS_ON, RenderingHints.VALUE_TEXT_ANTIALIAS_ON, 
+			RenderingHints.VALUE_INTERPOLATION_BICUBIC, 
+			RenderingHints.VALUE_ALPHA_INTERPOLATION_QUALITY, 
+			RenderingHints.VALUE_RENDER_QUALITY, RenderingHints.VALUE_STROKE_PURE);
+	
+	
+	// ATTRIBUTES	------------------------------
+	
+	private final RenderingHints hints;
+	
+	
+	// CONSTRUCTOR	------------------------------
+	
+	private RenderQuality(Object antialiasing, Object textAntialiasing, Object interpolation, 
+			Object alphaInterpolation, Object rendering, Object strokeControl)
+	{
+		this.hints = new RenderingHints(RenderingHints.KEY_ANTIALIASING, antialiasing);
+		this.hints.put(RenderingHints.KEY_TEXT_ANTIALIASING, textAntialiasing);
+		this.hints.put(RenderingHints.KEY_INTERPOLATION, interpolation);
+		this.hints.put(RenderingHints.KEY_ALPHA_INTERPOLATION, alphaInterpolation);
+		this.hints.put(RenderingHints.KEY_RENDERING, rendering);
+		this.hints.put(RenderingHints.KEY_STROKE_CONTROL, strokeControl);
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * @return A copy of the rendering hints used with this quality
+	 */
+	public RenderingHints getHints()
+	{
+		return (RenderingHints) this.hints.clone();
+	}
+	
+	/**
+	 * @return The interpolation hint value used when images are scaled with this quality
+	 */
+	public Object getInterpolation()
+	{
+		return this.hints.get(RenderingHints.KEY_INTERPOLATION);
+	}
+	
+	/**
+	 * Applies this quality to a graphics object. Other rendering hints are left as they are.
+	 * @param g2d The graphics object that is modified
+	 */
+	public void apply(Graphics2D g2d)
+	{
+		g2d.addRenderingHints(this.hints);
+	}
+	
+	/**
+	 * @return The next lower quality. The lowest quality returns itself.
+	 */
+	public RenderQuality lower()
+	{
+		return ordinal() == 0 ? this : values()[ordinal() - 1];
+	}
+	
+	/**
+	 * @return The next higher quality. The highest quality returns itself.
+	 */
+	public RenderQuality higher()
+	{
+		RenderQuality[] values = values();
+		return ordinal() == values.length - 1 ? this : values[ordinal() + 1];
+	}
+}
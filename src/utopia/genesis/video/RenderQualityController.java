@@ -0,0 +1,121 @@
+package utopia.genesis.video;
+
+/**
+ * A render quality controller adjusts the render quality based on how long painting takes. 
+ * The quality is lowered when the average paint time exceeds the frame budget and raised 
+ * again once there is enough headroom for a while.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see GamePanel#setAdaptiveRenderQuality(RenderQuality, RenderQuality)
+ */
+public class RenderQualityController
+{
+	// ATTRIBUTES	------------------------------
+	
+	private static final double AVERAGE_WEIGHT = 0.1;
+	private static final double HEADROOM_RATIO = 0.6;
+	private static final int LOWER_AFTER_FRAMES = 10;
+	private static final int RAISE_AFTER_FRAMES = 120;
+	
+	private RenderQuality quality, minQuality, maxQuality;
+	private long frameBudgetNanos;
+	private double averagePaintNanos = -1;
+	private int framesOverBudget = 0, framesWithHeadroom = 0;
+	
+	
+	// CONSTRUCTOR	------------------------------
+	
+	/**
+	 * Creates a new controller that starts from the highest allowed quality
+	 * @param minQuality The lowest quality the controller may use
+	 * @param maxQuality The highest quality the controller may use
+	 * @param frameBudgetMillis How many milliseconds painting a single frame may take
+	 */
+	public RenderQualityController(RenderQuality minQuality, RenderQuality maxQuality, 
+			double frameBudgetMillis)
+	{
+		// Initializes attributes
+		if (minQuality.compareTo(maxQuality) > 0)
+		{
+			this.minQuality = maxQuality;
+			this.maxQuality = minQuality;
+		}
+		else
+		{
+			this.minQuality = minQuality;
+			this.maxQuality = maxQuality;
+		}
+		this.quality = this.maxQuality;
+		this.frameBudgetNanos = (long) (frameBudgetMillis * 1000000);
+	}
+	
+	
+	// ACCESSORS	------------------------------
+	
+	/**
+	 * @return The render quality that should currently be used
+	 */
+	public synchronized RenderQuality getQuality()
+	{
+		return this.quality;
+	}
+	
+	/**
+	 * @return The average time it takes to paint a frame in milliseconds. Negative if no 
+	 * frames have been painted yet.
+	 */
+	public synchronized double getAveragePaintMillis()
+	{
+		return this.averagePaintNanos < 0 ? -1 : this.averagePaintNanos / 1000000;
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Informs the controller about a painted frame. The quality may be changed as a result.
+	 * @param paintNanos How many nanoseconds painting the frame took
+	 * @return The render quality that should be used for the next frame
+	 */
+	public synchronized RenderQuality recordFrame(long paintNanos)
+	{
+		if (this.averagePaintNanos < 0)
+			this.averagePaintNanos = paintNanos;
+		else
+			this.averagePaintNanos += (paintNanos - this.averagePaintNanos) * AVERAGE_WEIGHT;
+		
+		if (this.averagePaintNanos > this.frameBudgetNanos)
+		{
+			this.framesWithHeadroom = 0;
+			this.framesOverBudget ++;
+			
+			if (this.framesOverBudget >= LOWER_AFTER_FRAMES && this.quality != this.minQuality)
+				changeQuality(this.quality.lower());
+		}
+		else if (this.averagePaintNanos < this.frameBudgetNanos * HEADROOM_RATIO)
+		{
+			this.framesOverBudget = 0;
+			this.framesWithHeadroom ++;
+			
+			if (this.framesWithHeadroom >= RAISE_AFTER_FRAMES && 
+					this.quality != this.maxQuality)
+				changeQuality(this.quality.higher());
+		}
+		else
+		{
+			this.framesOverBudget = 0;
+			this.framesWithHeadroom = 0;
+		}
+		
+		return this.quality;
+	}
+	
+	private void changeQuality(RenderQuality quality)
+	{
+		// The average of the previous quality doesn't describe the new one
+		this.quality = quality;
+		this.averagePaintNanos = -1;
+		this.framesOverBudget = 0;
+		this.framesWithHeadroom = 0;
+	}
+}
@@ -0,0 +1,165 @@
+package utopia.genesis.video;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * RenderScheduler repaints multiple game panels from a single thread. All panels that need 
+ * to be repainted are repainted during the same frame tick, which keeps the frames of 
+ * split-screen panels consistent.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see GamePanel#setRenderScheduler(RenderScheduler)
+ */
+public class RenderScheduler extends Thread
+{
+	// ATTRIBUTES	------------------------------
+	
+	private List<GamePanel> panels;
+	private int frameIntervalMillis;
+	private volatile boolean ended = false;
+	private volatile long frameNumber = 0;
+	private long nextFrameMillis = 0;
+	
+	
+	// CONSTRUCTOR	------------------------------
+	
+	/**
+	 * Creates a new scheduler. The scheduler must be started separately.
+	 * @param framesPerSecond How many frames are drawn each second at maximum. If the value 
+	 * is 0 or less, the panels will be updated constantly.
+	 */
+	public RenderScheduler(int framesPerSecond)
+	{
+		// Initializes attributes
+		if (framesPerSecond <= 0)
+			this.frameIntervalMillis = 0;
+		else
+			this.frameIntervalMillis = 1000 / framesPerSecond;
+		
+		this.panels = new CopyOnWriteArrayList<>();
+	}
+	
+	
+	// IMPLEMENTED METHODS	----------------------
+	
+	@Override
+	public synchronized void run()
+	{
+		while (!this.ended)
+		{
+			long currentMillis = System.currentTimeMillis();
+			
+			// Repaints all the panels that require it during the same tick
+			boolean painted = false;
+			long minWaitMillis = -1;
+			for (GamePanel panel : this.panels)
+			{
+				long untilRepaintMillis = panel.millisUntilRepaint(currentMillis);
+				if (untilRepaintMillis == 0)
+				{
+					panel.repaintFrame(currentMillis);
+					painted = true;
+				}
+				else if (untilRepaintMillis > 0 && (minWaitMillis < 0 || 
+						untilRepaintMillis < minWaitMillis))
+					minWaitMillis = untilRepaintMillis;
+			}
+			
+			// The next frame is aligned to the previous frame deadline
+			if (painted)
+			{
+				this.frameNumber ++;
+				this.nextFrameMillis = Math.max(this.nextFrameMillis + 
+						this.frameIntervalMillis, currentMillis);
+				waitUntil(this.nextFrameMillis);
+			}
+			// If no panel needed repainting, waits until one does
+			else
+				waitMillis(Math.max(0, minWaitMillis));
+		}
+	}
+	
+	
+	// ACCESSORS	------------------------------
+	
+	/**
+	 * @return How many frame ticks have been drawn by this scheduler
+	 */
+	public long getFrameNumber()
+	{
+		return this.frameNumber;
+	}
+	
+	/**
+	 * @return The panels currently repainted by this scheduler. The returned list is a copy.
+	 */
+	public List<GamePanel> getPanels()
+	{
+		return new CopyOnWriteArrayList<>(this.panels);
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Stops the scheduler. The panels won't be repainted by this scheduler afterwards.
+	 */
+	public synchronized void end()
+	{
+		this.ended = true;
+		notifyAll();
+	}
+	
+	/**
+	 * Wakes the scheduler in case it is waiting for a redraw request
+	 */
+	public synchronized void wake()
+	{
+		notifyAll();
+	}
+	
+	/**
+	 * Adds a new panel to be repainted by this scheduler. Use 
+	 * {@link GamePanel#setRenderScheduler(RenderScheduler)} instead.
+	 * @param panel The panel that will be repainted
+	 */
+	void addPanel(GamePanel panel)
+	{
+		if (!this.panels.contains(panel))
+			this.panels.add(panel);
+		wake();
+	}
+	
+	/**
+	 * Removes a panel from the panels repainted by this scheduler
+	 * @param panel The panel that will no longer be repainted
+	 */
+	void removePanel(GamePanel panel)
+	{
+		this.panels.remove(panel);
+	}
+	
+	private void waitUntil(long targetMillis)
+	{
+		long waitMillis = targetMillis - System.currentTimeMillis();
+		while (waitMillis > 0 && !this.ended)
+		{
+			waitMillis(waitMillis);
+			waitMillis = targetMillis - System.currentTimeMillis();
+		}
+	}
+	
+	// 0 millis means waiting until notified
+	private void waitMillis(long millis)
+	{
+		try
+		{
+			wait(millis);
+		}
+		catch (InterruptedException e)
+		{
+			// Wait interrupt is ignored
+		}
+	}
+}
@@ -1,13 +1,18 @@
 package utopia.genesis.video;
 
 import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Rectangle;
 import java.awt.event.ComponentEvent;
 import java.awt.event.ComponentListener;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.swing.JPanel;
 
+import utopia.genesis.util.ParallelTasks;
 import utopia.genesis.util.Vector3D;
 
 /**
@@ -23,6 +28,8 @@ public class SplitPanel extends JPanel implements ComponentListener
 
 	private List<GamePanel> gamePanels;
 	private ScreenSplit split;
+	private RenderScheduler renderScheduler = null;
+	private volatile ExecutorService renderPool = null;
 	
 	
 	// CONSTRUCTOR	------------------------------------
@@ -49,6 +56,18 @@ public class SplitPanel extends JPanel implements ComponentListener
 	
 	// IMPLEMENTED METHODS	---------------------
 	
+	@Override
+	protected void paintChildren(Graphics g)
+	{
+		// When parallel rendering is used, the game panels are rendered offscreen first 
+		// and then simply drawn on the screen
+		ExecutorService pool = this.renderPool;
+		if (pool != null)
+			renderPanelsOffscreen(pool, g.getClipBounds());
+		
+		super.paintChildren(g);
+	}
+	
 	@Override
 	public void componentResized(ComponentEvent e)
 	{
@@ -93,6 +112,15 @@ public class SplitPanel extends JPanel implements ComponentListener
 		return this.gamePanels.size();
 	}
 	
+	/**
+	 * @return The scheduler that repaints all the game panels in this panel. Null if the 
+	 * panels are repainted separately.
+	 */
+	public RenderScheduler getRenderScheduler()
+	{
+		return this.renderScheduler;
+	}
+	
 	
 	// OTHER METHODS	--------------------------------
 	
@@ -106,6 +134,10 @@ public class SplitPanel extends JPanel implements ComponentListener
 		{
 			add(panel);
 			this.gamePanels.add(panel);
+			if (this.renderScheduler != null)
+				panel.setRenderScheduler(this.renderScheduler);
+			if (this.renderPool != null)
+				panel.setRenderedOffscreen(true);
 			updatePanelBounds();
 		}
 	}
@@ -119,10 +151,89 @@ public class SplitPanel extends JPanel implements ComponentListener
 		if (panel != null && this.gamePanels.contains(panel))
 		{
 			this.gamePanels.remove(panel);
+			if (this.renderScheduler != null)
+				panel.setRenderScheduler(null);
+			panel.setRenderedOffscreen(false);
 			updatePanelBounds();
 		}
 	}
 	
+	/**
+	 * Makes all the game panels in this panel be repainted by a single shared scheduler 
+	 * instead of each using its own refresh thread. Each frame, the panels are repainted 
+	 * during the same tick.
+	 * @param framesPerSecond How many times a second the panels are refreshed. If the value 
+	 * is 0 or less, the panels will be updated constantly.
+	 * @return The scheduler that now repaints the panels
+	 */
+	public RenderScheduler useSharedRenderScheduler(int framesPerSecond)
+	{
+		RenderScheduler previousScheduler = this.renderScheduler;
+		this.renderScheduler = new RenderScheduler(framesPerSecond);
+		
+		for (GamePanel panel : this.gamePanels)
+		{
+			panel.setRenderScheduler(this.renderScheduler);
+		}
+		
+		if (previousScheduler != null)
+			previousScheduler.end();
+		this.renderScheduler.start();
+		
+		return this.renderScheduler;
+	}
+	
+	/**
+	 * Changes whether the game panels are rendered in parallel. When parallel rendering is 
+	 * enabled, each panel's content is rendered into its own offscreen buffer on a separate 
+	 * worker thread, after which the buffers are drawn on this panel in a single pass. 
+	 * Parallel rendering works best with a shared render scheduler.
+	 * @param enabled Should the game panels be rendered in parallel
+	 * @see #useSharedRenderScheduler(int)
+	 */
+	public void setParallelRenderingEnabled(boolean enabled)
+	{
+		if (enabled == (this.renderPool != null))
+			return;
+		
+		if (enabled)
+		{
+			int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+			this.renderPool = Executors.newFixedThreadPool(threads, runnable -> 
+			{
+				Thread thread = new Thread(runnable, "SplitPanel renderer");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		else
+		{
+			this.renderPool.shutdown();
+			this.renderPool = null;
+		}
+		
+		for (GamePanel panel : this.gamePanels)
+		{
+			panel.setRenderedOffscreen(enabled);
+		}
+		repaint();
+	}
+	
+	private void renderPanelsOffscreen(ExecutorService pool, Rectangle clip)
+	{
+		// Only renders the panels that are visible in the painted area
+		List<Runnable> tasks = new ArrayList<>();
+		for (GamePanel panel : this.gamePanels)
+		{
+			if (panel.isVisible() && (clip == null || clip.intersects(panel.getBounds())))
+				tasks.add(panel::renderOffscreen);
+		}
+		
+		// Waits until all of the panels have been rendered
+		if (!tasks.isEmpty())
+			ParallelTasks.runAll(pool, tasks, "game panel rendering");
+	}
+	
 	private void updatePanelBounds()
 	{
 		// Updates the GamePanel sizes
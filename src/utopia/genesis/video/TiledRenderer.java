@@ -0,0 +1,209 @@
+package utopia.genesis.video;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import utopia.genesis.event.DrawList;
+import utopia.genesis.event.DrawStatistics;
+import utopia.genesis.event.Drawable;
+import utopia.genesis.event.DrawableHandler;
+import utopia.genesis.util.ParallelTasks;
+
+/**
+ * TiledRenderer splits the drawn area into tiles and renders each tile on a separate worker 
+ * thread. Only the drawables that intersect a tile are drawn to that tile (drawables with 
+ * unknown bounds are drawn to every tile). The tiles are assembled into the final frame 
+ * afterwards.<br>
+ * The drawables are collected and prepared for the frame on the calling thread before any 
+ * tile is drawn. Since a drawable may be drawn to multiple tiles at once, it should only 
+ * read the state it picked in {@link Drawable#prepareFrame()}, which the collected list 
+ * hands to {@link Drawable#drawFrame(java.awt.Graphics2D, Object)}.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see GamePanel#setTiledRendering(int)
+ */
+public class TiledRenderer
+{
+	// ATTRIBUTES	------------------------------
+	
+	private int tileSize;
+	private ExecutorService pool;
+	private List<BufferedImage> tiles;
+	
+	
+	// CONSTRUCTOR	------------------------------
+	
+	/**
+	 * Creates a new renderer
+	 * @param tileSize The width and height of a single tile in pixels
+	 * @param threads How many worker threads are used for rendering the tiles
+	 */
+	public TiledRenderer(int tileSize, int threads)
+	{
+		// Initializes attributes
+		this.tileSize = Math.max(16, tileSize);
+		this.tiles = new ArrayList<>();
+		this.pool = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> 
+		{
+			Thread thread = new Thread(runnable, "Tile renderer");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+	
+	
+	// ACCESSORS	------------------------------
+	
+	/**
+	 * @return The width and height of a single tile in pixels
+	 */
+	public int getTileSize()
+	{
+		return this.tileSize;
+	}
+	
+	
+	// OTHER METHODS	--------------------------
+	
+	/**
+	 * Renders the contents of a drawable handler. Each tile is drawn in parallel, but this 
+	 * method returns only once the whole frame has been drawn.
+	 * @param drawer The drawable handler that holds the drawn content
+	 * @param g2d The graphics object that receives the rendered frame. The tiles are 
+	 * drawn in the object's current coordinate system, starting from (0, 0).
+	 * @param width The width of the rendered area in pixels
+	 * @param height The height of the rendered area in pixels
+	 * @param scaling The scaling applied to the game world when it is drawn
+	 */
+	public void render(DrawableHandler drawer, Graphics2D g2d, int width, int height, 
+			double scaling)
+	{
+		if (width <= 0 || height <= 0 || scaling <= 0)
+			return;
+		
+		// Collects and prepares the drawn objects only once, on this thread
+		DrawList drawList = drawer.collectDrawList(new Rectangle2D.Double(0, 0, 
+				width / scaling, height / scaling));
+		try
+		{
+			render(drawer, drawList, g2d, width, height, scaling, null);
+		}
+		finally
+		{
+			drawList.release();
+		}
+	}
+	
+	/**
+	 * Renders a draw list collected from a drawable handler. Each tile is drawn in parallel 
+	 * through the handler, but this method returns only once the whole frame has been drawn.
+	 * @param drawer The drawable handler the list was collected from
+	 * @param drawList The drawn objects in drawing order
+	 * @param g2d The graphics object that receives the rendered frame. The tiles are 
+	 * drawn in the object's current coordinate system, starting from (0, 0).
+	 * @param width The width of the rendered area in pixels
+	 * @param height The height of the rendered area in pixels
+	 * @param scaling The scaling applied to the game world when it is drawn
+	 * @param statistics The statistics the visited and drawn objects are counted to. Each 
+	 * object is counted once, no matter how many tiles it is drawn to. Null if no 
+	 * statistics should be collected.
+	 * @see DrawableHandler#collectDrawList(Rectangle2D)
+	 */
+	public synchronized void render(DrawableHandler drawer, DrawList drawList, Graphics2D g2d, 
+			int width, int height, double scaling, DrawStatistics statistics)
+	{
+		if (width <= 0 || height <= 0 || scaling <= 0)
+			return;
+		
+		if (statistics != null)
+			drawList.recordStatistics(statistics, new Rectangle2D.Double(0, 0, 
+					width / scaling, height / scaling));
+		
+		// Prepares the tile buffers
+		int columns = (width + this.tileSize - 1) / this.tileSize;
+		int rows = (height + this.tileSize - 1) / this.tileSize;
+		while (this.tiles.size() < columns * rows)
+		{
+			this.tiles.add(new BufferedImage(this.tileSize, this.tileSize, 
+					BufferedImage.TYPE_INT_ARGB_PRE));
+		}
+		
+		// Renders the tiles in parallel, using the same rendering hints
+		RenderingHints hints = g2d.getRenderingHints();
+		List<Runnable> tasks = new ArrayList<>(columns * rows);
+		for (int y = 0; y < rows; y++)
+		{
+			for (int x = 0; x < columns; x++)
+			{
+				BufferedImage tile = this.tiles.get(y * columns + x);
+				int tileX = x * this.tileSize;
+				int tileY = y * this.tileSize;
+				
+				tasks.add(() -> renderTile(tile, tileX, tileY, scaling, hints, drawer, 
+						drawList));
+			}
+		}
+		
+		// An interrupted frame is left incomplete
+		if (!ParallelTasks.runAll(this.pool, tasks, "tile rendering") && 
+				Thread.currentThread().isInterrupted())
+			return;
+		
+		// Assembles the frame
+		for (int y = 0; y < rows; y++)
+		{
+			for (int x = 0; x < columns; x++)
+			{
+				g2d.drawImage(this.tiles.get(y * columns + x), x * this.tileSize, 
+						y * this.tileSize, null);
+			}
+		}
+	}
+	
+	/**
+	 * Stops the worker threads used by this renderer. The renderer can't be used afterwards.
+	 */
+	public void end()
+	{
+		this.pool.shutdown();
+	}
+	
+	private void renderTile(BufferedImage tile, int tileX, int tileY, double scaling, 
+			RenderingHints hints, DrawableHandler drawer, DrawList drawList)
+	{
+		Graphics2D g2d = tile.createGraphics();
+		try
+		{
+			g2d.setRenderingHints(hints);
+			
+			// Clears the previous contents of the tile
+			Composite originalComposite = g2d.getComposite();
+			g2d.setComposite(AlphaComposite.Clear);
+			g2d.fillRect(0, 0, this.tileSize, this.tileSize);
+			g2d.setComposite(originalComposite);
+			
+			// Moves the tile area to the origin and clips everything else away
+			g2d.translate(-tileX, -tileY);
+			g2d.clipRect(tileX, tileY, this.tileSize, this.tileSize);
+			if (scaling != 1)
+				g2d.scale(scaling, scaling);
+			g2d.setColor(Color.BLACK);
+			
+			// The handler only draws the objects that intersect the tile's clip area
+			drawer.drawSelf(g2d, drawList, null);
+		}
+		finally
+		{
+			g2d.dispose();
+		}
+	}
+}